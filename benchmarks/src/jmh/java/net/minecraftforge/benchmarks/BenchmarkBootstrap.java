@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.benchmarks;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+/**
+ * Brings up the vanilla registries, for benchmarks that need real items or registry contents.
+ * This does not load any mods, so only vanilla and Forge's own content is available.
+ */
+final class BenchmarkBootstrap {
+    private static boolean done = false;
+
+    static synchronized void init() {
+        if (done)
+            return;
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        done = true;
+    }
+
+    private BenchmarkBootstrap() {}
+}
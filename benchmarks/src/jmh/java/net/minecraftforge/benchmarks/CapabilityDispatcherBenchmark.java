@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityDispatcher;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.common.capabilities.CapabilityToken;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.util.LazyOptional;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Looks up capabilities on a dispatcher the size of a heavily modded block entity, hitting the first provider, the last
+ * provider, and a capability no provider has.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CapabilityDispatcherBenchmark {
+    @Param({"1", "8", "32"})
+    public int providers;
+
+    private CapabilityDispatcher dispatcher;
+    private Capability<Object> first;
+    private Capability<Object> last;
+    private Capability<Object> missing;
+
+    @Setup
+    public void setup() {
+        List<Capability<Object>> caps = new ArrayList<>();
+        Map<ResourceLocation, ICapabilityProvider> map = new HashMap<>();
+        for (int x = 0; x < providers; x++) {
+            var cap = CapabilityManager.get(new CapabilityToken<Object>(){}, "benchmark", "cap_" + x);
+            caps.add(cap);
+            map.put(ResourceLocation.fromNamespaceAndPath("benchmark", "provider_" + x), new Provider(cap, new Object()));
+        }
+        dispatcher = new CapabilityDispatcher(map, new ArrayList<>());
+        first = caps.get(0);
+        last = caps.get(caps.size() - 1);
+        missing = CapabilityManager.get(new CapabilityToken<Object>(){}, "benchmark", "missing");
+    }
+
+    @Benchmark
+    public LazyOptional<Object> first() {
+        return dispatcher.getCapability(first, Direction.NORTH);
+    }
+
+    @Benchmark
+    public LazyOptional<Object> last() {
+        return dispatcher.getCapability(last, Direction.NORTH);
+    }
+
+    @Benchmark
+    public LazyOptional<Object> missing() {
+        return dispatcher.getCapability(missing, null);
+    }
+
+    private static class Provider implements ICapabilityProvider {
+        private final Capability<Object> cap;
+        private final LazyOptional<Object> value;
+
+        private Provider(Capability<Object> cap, Object value) {
+            this.cap = cap;
+            this.value = LazyOptional.of(() -> value);
+        }
+
+        @Override
+        public @NotNull <T> LazyOptional<T> getCapability(@NotNull Capability<T> cap, @Nullable Direction side) {
+            return cap == this.cap ? value.cast() : LazyOptional.empty();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.client.renderer.RenderType;
+import net.minecraftforge.client.ChunkRenderTypeSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Creates, combines and queries {@link ChunkRenderTypeSet}s, which chunk meshing does for every block model.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChunkRenderTypeSetBenchmark {
+    private List<ChunkRenderTypeSet> sets;
+    private ChunkRenderTypeSet cutout;
+
+    @Setup
+    public void setup() {
+        cutout = ChunkRenderTypeSet.of(RenderType.cutout(), RenderType.cutoutMipped());
+        sets = List.of(ChunkRenderTypeSet.of(RenderType.solid()), cutout, ChunkRenderTypeSet.of(RenderType.translucent()));
+    }
+
+    @Benchmark
+    public ChunkRenderTypeSet of() {
+        return ChunkRenderTypeSet.of(RenderType.cutout(), RenderType.translucent());
+    }
+
+    @Benchmark
+    public ChunkRenderTypeSet union() {
+        return ChunkRenderTypeSet.union(sets);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return cutout.contains(RenderType.cutoutMipped());
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (RenderType type : cutout)
+            bh.consume(type);
+    }
+}
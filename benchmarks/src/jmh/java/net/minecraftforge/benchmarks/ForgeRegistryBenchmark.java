@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.ForgeRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Id and value lookups in the item registry, which network serialization of every item stack goes through.
+ * Lookups cycle through every registered item so they are not all served by the same cache lines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ForgeRegistryBenchmark {
+    private ForgeRegistry<Item> registry;
+    private Item[] items;
+    private ResourceLocation[] names;
+    private int[] ids;
+    private int index;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        registry = (ForgeRegistry<Item>)ForgeRegistries.ITEMS;
+        items = registry.getValues().toArray(new Item[0]);
+        names = new ResourceLocation[items.length];
+        ids = new int[items.length];
+        for (int x = 0; x < items.length; x++) {
+            names[x] = registry.getKey(items[x]);
+            ids[x] = registry.getID(items[x]);
+        }
+    }
+
+    private int next() {
+        int ret = index++;
+        if (index == items.length)
+            index = 0;
+        return ret;
+    }
+
+    @Benchmark
+    public int getId() {
+        return registry.getID(items[next()]);
+    }
+
+    @Benchmark
+    public Item getValueById() {
+        return registry.getValue(ids[next()]);
+    }
+
+    @Benchmark
+    public Item getValueByName() {
+        return registry.getValue(names[next()]);
+    }
+
+    @Benchmark
+    public ResourceLocation getKey() {
+        return registry.getKey(items[next()]);
+    }
+}
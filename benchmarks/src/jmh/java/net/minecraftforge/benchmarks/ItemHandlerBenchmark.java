@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraftforge.items.ItemHandlerHelper;
+import net.minecraftforge.items.ItemStackHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Moves items in and out of an {@link ItemStackHandler} the way hoppers and pipes do: simulated and real single slot
+ * inserts and extracts, and {@link ItemHandlerHelper#insertItemStacked} into an inventory that is mostly full.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemHandlerBenchmark {
+    @Param({"27", "54"})
+    public int slots;
+
+    private ItemStackHandler handler;
+    private ItemStack stone;
+    private ItemStack dirt;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        stone = new ItemStack(Items.STONE, 1);
+        dirt = new ItemStack(Items.DIRT, 1);
+
+        handler = new ItemStackHandler(slots);
+        // Everything but the last slot holds a different, full, stack, so stacking has to scan the whole inventory
+        for (int x = 0; x < slots - 1; x++)
+            handler.setStackInSlot(x, new ItemStack(Items.DIRT, 64));
+        handler.setStackInSlot(slots - 1, new ItemStack(Items.STONE, 32));
+    }
+
+    @Benchmark
+    public ItemStack insertSimulated() {
+        return handler.insertItem(slots - 1, stone, true);
+    }
+
+    @Benchmark
+    public ItemStack extractSimulated() {
+        return handler.extractItem(slots - 1, 1, true);
+    }
+
+    // Inserts and then takes back out, so the inventory is the same for every invocation
+    @Benchmark
+    public ItemStack insertExtract() {
+        handler.insertItem(slots - 1, stone.copy(), false);
+        return handler.extractItem(slots - 1, 1, false);
+    }
+
+    @Benchmark
+    public ItemStack insertStacked() {
+        return ItemHandlerHelper.insertItemStacked(handler, stone, true);
+    }
+
+    @Benchmark
+    public ItemStack insertStackedNoRoom() {
+        return ItemHandlerHelper.insertItemStacked(handler, dirt, true);
+    }
+}
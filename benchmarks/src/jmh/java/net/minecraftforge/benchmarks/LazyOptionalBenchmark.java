@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraftforge.common.util.LazyOptional;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the first resolution of a LazyOptional, which is paid every time a provider hands out a new one, and reads
+ * of an already resolved instance, which is what most callers do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LazyOptionalBenchmark {
+    private final Object value = new Object();
+    private LazyOptional<Object> resolved;
+
+    @Setup
+    public void setup() {
+        resolved = LazyOptional.of(() -> value);
+        resolved.resolve();
+    }
+
+    @Benchmark
+    public Object resolveNew() {
+        return LazyOptional.of(() -> value).orElse(null);
+    }
+
+    @Benchmark
+    public Object resolveOfValue() {
+        return LazyOptional.ofValue(value).orElse(null);
+    }
+
+    @Benchmark
+    public Object resolveCached() {
+        return resolved.orElse(null);
+    }
+
+    @Benchmark
+    public boolean isPresent() {
+        return resolved.isPresent();
+    }
+
+    @Benchmark
+    public Object cast() {
+        return resolved.<Object>cast().orElse(null);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraftforge.common.util.MutableHashedLinkedMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Builds and walks a {@link MutableHashedLinkedMap} the way creative tab contents are built, appending most entries and
+ * inserting the rest relative to existing ones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MutableHashedLinkedMapBenchmark {
+    @Param({"64", "1024"})
+    public int size;
+
+    private String[] keys;
+    private MutableHashedLinkedMap<String, Integer> filled;
+
+    @Setup
+    public void setup() {
+        keys = new String[size];
+        for (int x = 0; x < size; x++)
+            keys[x] = "key_" + x;
+        filled = create();
+    }
+
+    private MutableHashedLinkedMap<String, Integer> create() {
+        var map = new MutableHashedLinkedMap<String, Integer>();
+        for (int x = 0; x < size; x++) {
+            if (x % 8 == 7)
+                map.putAfter(keys[x / 2], keys[x], x);
+            else
+                map.put(keys[x], x);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public MutableHashedLinkedMap<String, Integer> build() {
+        return create();
+    }
+
+    @Benchmark
+    public void get(Blackhole bh) {
+        for (String key : keys)
+            bh.consume(filled.get(key));
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (Map.Entry<String, Integer> entry : filled)
+            bh.consume(entry.getValue());
+    }
+}
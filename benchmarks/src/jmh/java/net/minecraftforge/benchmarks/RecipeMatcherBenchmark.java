@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import net.minecraftforge.common.util.RecipeMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Matches shapeless inputs against ingredients. Each ingredient accepts a few values, so there is overlap between them
+ * and the matcher has to backtrack, like tag based ingredients in real recipes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RecipeMatcherBenchmark {
+    @Param({"4", "9", "27"})
+    public int size;
+
+    private List<Integer> inputs;
+    private List<Predicate<Integer>> tests;
+    private List<Integer> unmatched;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(42);
+        inputs = new ArrayList<>();
+        tests = new ArrayList<>();
+        for (int x = 0; x < size; x++) {
+            inputs.add(x);
+            // Accepts this input and up to two of its neighbors
+            int a = x;
+            int b = Math.max(0, x - 1 - rand.nextInt(2));
+            int c = Math.min(size - 1, x + 1 + rand.nextInt(2));
+            tests.add(i -> i == a || i == b || i == c);
+        }
+        // Reverse order is the worst case for the greedy first pass
+        inputs = inputs.reversed();
+        unmatched = new ArrayList<>(inputs);
+        unmatched.set(0, -1);
+    }
+
+    @Benchmark
+    public int[] match() {
+        return RecipeMatcher.findMatches(inputs, tests);
+    }
+
+    @Benchmark
+    public int[] noMatch() {
+        return RecipeMatcher.findMatches(unmatched, tests);
+    }
+}
@@ -19,6 +19,12 @@ public class ForgeConfig {
     private static final Logger LOGGER = LogManager.getLogger();
 
     public static class Server {
+        public enum TickMetricsExport {
+            OFF,
+            FILE,
+            JMX
+        }
+
         public final BooleanValue removeErroringBlockEntities;
 
         public final BooleanValue removeErroringEntities;
@@ -29,6 +35,12 @@ public class ForgeConfig {
 
         public final BooleanValue advertiseDedicatedServerToLan;
 
+        public final ForgeConfigSpec.IntValue lagSpikeThreshold;
+
+        public final ForgeConfigSpec.EnumValue<TickMetricsExport> tickMetricsExport;
+
+        public final ForgeConfigSpec.IntValue tickMetricsExportInterval;
+
         Server(ForgeConfigSpec.Builder builder) {
             builder.comment("Server configuration settings")
                    .push("server");
@@ -61,6 +73,21 @@ public class ForgeConfig {
                     .translation("forge.configgui.advertiseDedicatedServerToLan")
                     .define("advertiseDedicatedServerToLan", true);
 
+            lagSpikeThreshold = builder
+                    .comment("Ticks that take at least this many milliseconds are counted as lag spikes by /forge tps stats and the tick metrics export.")
+                    .translation("forge.configgui.lagSpikeThreshold")
+                    .defineInRange("lagSpikeThreshold", 100, 1, 60_000);
+
+            tickMetricsExport = builder
+                    .comment("Periodically export tick time percentiles for the server and each dimension. FILE writes debug/forge-tick-metrics.json, JMX registers net.minecraftforge:type=TickTimes MBeans. Defaults to OFF.")
+                    .translation("forge.configgui.tickMetricsExport")
+                    .defineEnum("tickMetricsExport", TickMetricsExport.OFF);
+
+            tickMetricsExportInterval = builder
+                    .comment("How often, in seconds, tick metrics are exported when tickMetricsExport is not OFF.")
+                    .translation("forge.configgui.tickMetricsExportInterval")
+                    .defineInRange("tickMetricsExportInterval", 10, 1, 3600);
+
             builder.pop();
         }
     }
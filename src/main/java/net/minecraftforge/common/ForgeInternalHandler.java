@@ -18,16 +18,21 @@ import net.minecraftforge.event.entity.EntityJoinLevelEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.level.ChunkEvent;
 import net.minecraftforge.event.network.ConnectionStartEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
 import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.event.TickEvent.ServerTickEvent;
 import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.network.SimpleChannel;
 import net.minecraftforge.network.filters.NetworkFilters;
 import net.minecraftforge.common.util.LogicalSidedProvider;
+import net.minecraftforge.server.command.ChunkPregenWorker;
 import net.minecraftforge.server.command.ForgeCommand;
 import net.minecraftforge.server.permission.events.PermissionGatherEvent;
 import net.minecraftforge.server.command.ConfigCommand;
+import net.minecraftforge.server.timings.TickMetricsExporter;
+import net.minecraftforge.server.timings.TickTimeStats;
 
 public class ForgeInternalHandler {
     @SubscribeEvent(priority = EventPriority.HIGH)
@@ -57,6 +62,13 @@ public class ForgeInternalHandler {
     @SubscribeEvent
     public void onServerTick(ServerTickEvent.Post event) {
         WorldWorkerManager.tick(false);
+        TickTimeStats.sample(event.getServer(), ForgeConfig.SERVER.lagSpikeThreshold.get() * 1_000_000L);
+        TickMetricsExporter.tick(event.getServer());
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onServerTickEnd(ServerTickEvent.Post event) {
+        SimpleChannel.flushBatches();
     }
 
 //    @SubscribeEvent
@@ -120,9 +132,16 @@ public class ForgeInternalHandler {
         NetworkFilters.injectIfNecessary(event.getConnection());
     }
 
+    @SubscribeEvent
+    public void serverStarted(ServerStartedEvent evt) {
+        ChunkPregenWorker.resumeAll(evt.getServer());
+    }
+
     @SubscribeEvent
     public void serverStopping(ServerStoppingEvent evt) {
         WorldWorkerManager.clear();
+        TickMetricsExporter.stop();
+        TickTimeStats.reset();
     }
 
     @SubscribeEvent
@@ -7,67 +7,140 @@ package net.minecraftforge.common;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
+import net.minecraft.util.Mth;
+
+/**
+ * Runs {@link IWorker}s in the time left over at the end of each server tick.
+ * <p>
+ * The time available is whatever remains of the 50ms tick, with a floor that shrinks as the recent average tick time
+ * approaches 50ms, so that a lagging server is not made worse. That time is split between workers in proportion to their
+ * {@link IWorker#getPriority() priority}, in a rotating order so no single worker is always first, and any time a worker
+ * leaves unused is handed to the others.
+ */
 public class WorldWorkerManager
 {
-    private static final List<IWorker> workers = new ArrayList<>();
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MAX_FLOOR_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MIN_FLOOR_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int MIN_PRIORITY = -4;
+    private static final int MAX_PRIORITY = 4;
+
+    private static final Queue<IWorker> pending = new ConcurrentLinkedQueue<>();
+    private static final List<Entry> workers = new ArrayList<>();
+    private static final List<Entry> active = new ArrayList<>();
     private static long startTime = -1;
-    private static int index = 0;
+    private static long smoothedTickNanos = 0;
+    private static int cursor = 0;
 
     public static void tick(boolean start)
     {
         if (start)
         {
-            startTime = System.currentTimeMillis();
+            startTime = System.nanoTime();
             return;
         }
 
-        index = 0;
-        IWorker task = getNext();
-        if (task == null)
+        long now = System.nanoTime();
+        long elapsed = startTime == -1 ? 0 : now - startTime;
+        smoothedTickNanos = (smoothedTickNanos * 4 + elapsed) / 5;
+
+        IWorker added;
+        while ((added = pending.poll()) != null)
+            workers.add(new Entry(added));
+        if (workers.isEmpty())
             return;
 
-        long time = 50 - (System.currentTimeMillis() - startTime);
-        if (time < 10)
-            time = 10; //If ticks are lagging, give us at least 10ms to do something.
-        time += System.currentTimeMillis();
+        // If ticks are lagging, still give us a little time to do something, but less the closer we are to falling behind.
+        long floor = Mth.clamp(TICK_NANOS - smoothedTickNanos, MIN_FLOOR_NANOS, MAX_FLOOR_NANOS);
+        long deadline = now + Math.max(TICK_NANOS - elapsed, floor);
 
-        while (System.currentTimeMillis() < time && task != null)
+        active.clear();
+        int size = workers.size();
+        cursor = cursor >= size ? 0 : cursor;
+        for (int x = 0; x < size; x++)
         {
-            boolean again = task.doWork();
+            Entry entry = workers.get((cursor + x) % size);
+            entry.used = 0;
+            if (!entry.worker.isWaiting())
+                active.add(entry);
+        }
+        cursor++;
 
-            if (!task.hasWork())
-            {
-                remove(task);
-                task = getNext();
-            }
-            else if (!again)
+        // Keep handing out slices until we run out of time or nobody wants to run again this tick.
+        while (!active.isEmpty())
+        {
+            now = System.nanoTime();
+            if (now >= deadline)
+                break;
+
+            long totalWeight = 0;
+            for (Entry entry : active)
+                totalWeight += weight(entry.worker);
+
+            long remaining = deadline - now;
+            for (int x = 0; x < active.size() && System.nanoTime() < deadline; x++)
             {
-                task = getNext();
+                Entry entry = active.get(x);
+                IWorker worker = entry.worker;
+                long sliceStart = System.nanoTime();
+                long slice = Math.min(remaining * weight(worker) / totalWeight, worker.getMaxNanosPerTick() - entry.used);
+                long sliceEnd = Math.min(deadline, sliceStart + Math.max(slice, 0));
+
+                boolean again;
+                do
+                {
+                    again = worker.doWork();
+                } while (again && worker.hasWork() && !worker.isWaiting() && System.nanoTime() < sliceEnd);
+                entry.used += System.nanoTime() - sliceStart;
+
+                if (!worker.hasWork())
+                {
+                    workers.remove(entry);
+                    active.remove(x--);
+                }
+                else if (!again || worker.isWaiting() || entry.used >= worker.getMaxNanosPerTick())
+                {
+                    active.remove(x--);
+                }
             }
         }
+        active.clear();
     }
 
-    public static synchronized void addWorker(IWorker worker)
+    private static long weight(IWorker worker)
     {
-        workers.add(worker);
+        return 1L << (Mth.clamp(worker.getPriority(), MIN_PRIORITY, MAX_PRIORITY) - MIN_PRIORITY);
     }
 
-    private static synchronized IWorker getNext()
+    public static void addWorker(IWorker worker)
     {
-        return workers.size() > index ? workers.get(index++) : null;
+        pending.add(worker);
     }
 
-    private static synchronized void remove(IWorker worker)
+    //Internal only, used to clear everything when the server shuts down.
+    public static void clear()
     {
-        workers.remove(worker);
-        index--;
+        pending.clear();
+        workers.clear();
+        active.clear();
+        startTime = -1;
+        smoothedTickNanos = 0;
+        cursor = 0;
     }
 
-    //Internal only, used to clear everything when the server shuts down.
-    public static synchronized void clear()
+    private static class Entry
     {
-        workers.clear();
+        private final IWorker worker;
+        private long used;
+
+        private Entry(IWorker worker)
+        {
+            this.worker = worker;
+        }
     }
 
     public static interface IWorker
@@ -79,5 +152,31 @@ public class WorldWorkerManager
          * Returning false will skip calling this worker until next tick.
          */
         boolean doWork();
+
+        /**
+         * The share of the available time this worker receives relative to others. Each step above 0 doubles the share,
+         * each step below halves it. Clamped to between -4 and 4.
+         */
+        default int getPriority()
+        {
+            return 0;
+        }
+
+        /**
+         * The most time in nanoseconds this worker may be given in a single tick, regardless of how much is available.
+         */
+        default long getMaxNanosPerTick()
+        {
+            return Long.MAX_VALUE;
+        }
+
+        /**
+         * Return true if this worker is blocked on asynchronous work, such as chunk futures, and calling {@link #doWork()}
+         * would only spin. Waiting workers are skipped until this returns false, without being removed.
+         */
+        default boolean isWaiting()
+        {
+            return false;
+        }
     }
 }
@@ -28,6 +28,14 @@ public final class Capability<T> {
         return name;
     }
 
+    /**
+     * @return A small, dense, non-negative integer unique to this capability for the lifetime of the game,
+     *   suitable for indexing arrays. Assigned by the {@link CapabilityManager} in creation order.
+     */
+    public int getId() {
+        return id;
+    }
+
     public @NotNull <R> LazyOptional<R> orEmpty(Capability<R> toCheck, LazyOptional<T> inst) {
         return this == toCheck ? inst.cast() : LazyOptional.empty();
     }
@@ -57,10 +65,12 @@ public final class Capability<T> {
 
     // INTERNAL
     private final String name;
+    private final int id;
     List<Consumer<Capability<T>>> listeners = new ArrayList<>();
 
-    Capability(String name) {
+    Capability(String name, int id) {
         this.name = name;
+        this.id = id;
     }
 
     void onRegister() {
@@ -8,9 +8,11 @@ package net.minecraftforge.common.capabilities;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import net.minecraft.MethodsReturnNonnullByDefault;
 import net.minecraft.nbt.Tag;
@@ -18,6 +20,7 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.core.Direction;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.common.util.IDirtyTrackingSerializable;
 import net.minecraftforge.common.util.INBTSerializable;
 import net.minecraftforge.common.util.LazyOptional;
 import org.jetbrains.annotations.Nullable;
@@ -31,6 +34,14 @@ import org.jetbrains.annotations.Nullable;
  *
  * Internally the handlers are baked into arrays for fast iteration.
  * The ResourceLocations will be used for the NBT Key when serializing.
+ *
+ * Answers are cached per capability {@link Capability#getId() id} and side, with a bitset of
+ * capabilities known to be absent, unless any provider opts out via {@link ICapabilityProvider#isCapabilityCacheable()}.
+ * The cache is copied on write and published as a whole, so it can be read from any thread.
+ * It is cleared by {@link #invalidate()}.
+ *
+ * Providers implementing {@link IDirtyTrackingSerializable} are only serialized again once they report being dirty,
+ * otherwise the tag they last produced is reused.
  */
 @ParametersAreNonnullByDefault
 @MethodsReturnNonnullByDefault
@@ -39,7 +50,14 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
     private final ICapabilityProvider[] caps;
     private final INBTSerializable<Tag>[] writers;
     private final String[] names;
+    private final @Nullable IDirtyTrackingSerializable<?>[] trackers;
+    private final @Nullable Tag[] lastWritten;
     private final List<Runnable> listeners;
+    private final boolean cacheable;
+
+    private static final int SIDES = Direction.values().length + 1; // Plus one for the null side
+    // Never modified once published, so queries from other threads always see a whole cache
+    private final AtomicReference<Cache> cache = new AtomicReference<>(Cache.EMPTY);
 
     public CapabilityDispatcher(Map<ResourceLocation, ICapabilityProvider> list, List<Runnable> listeners) {
         this(list, listeners, null);
@@ -72,11 +90,41 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
         caps = lstCaps.toArray(new ICapabilityProvider[lstCaps.size()]);
         writers = lstWriters.toArray(new INBTSerializable[lstWriters.size()]);
         names = lstNames.toArray(new String[lstNames.size()]);
+        trackers = new IDirtyTrackingSerializable<?>[writers.length];
+        lastWritten = new Tag[writers.length];
+        for (int x = 0; x < writers.length; x++) {
+            if (writers[x] instanceof IDirtyTrackingSerializable<?> tracker)
+                trackers[x] = tracker;
+        }
+
+        boolean cacheable = true;
+        for (ICapabilityProvider prov : caps)
+            cacheable &= prov.isCapabilityCacheable();
+        this.cacheable = cacheable;
     }
 
 
     @Override
     public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side) {
+        if (!cacheable)
+            return query(cap, side);
+
+        int key = cap.getId() * SIDES + (side == null ? 0 : side.ordinal() + 1);
+        Cache cache = this.cache.get();
+        if (cache.isAbsent(key))
+            return LazyOptional.empty();
+
+        LazyOptional<?> cached = cache.get(key);
+        if (cached != null && cached.isPresent())
+            return cached.cast();
+
+        LazyOptional<T> ret = query(cap, side);
+        // If someone else changed or cleared the cache meanwhile, skip caching this answer rather than undo theirs
+        this.cache.compareAndSet(cache, ret.isPresent() ? cache.with(key, ret) : cache.withAbsent(key));
+        return ret;
+    }
+
+    private <T> LazyOptional<T> query(Capability<T> cap, @Nullable Direction side) {
         for (ICapabilityProvider c : caps) {
             LazyOptional<T> ret = c.getCapability(cap, side);
             //noinspection ConstantConditions
@@ -100,20 +148,111 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
     @Override
     public CompoundTag serializeNBT(HolderLookup.Provider registryAccess) {
         CompoundTag nbt = new CompoundTag();
-        for (int x = 0; x < writers.length; x++)
-            nbt.put(names[x], writers[x].serializeNBT(registryAccess));
+        for (int x = 0; x < writers.length; x++) {
+            var tracker = trackers[x];
+            Tag tag = lastWritten[x];
+            if (tracker == null || tag == null || tracker.isDirty()) {
+                tag = writers[x].serializeNBT(registryAccess);
+                if (tracker != null) {
+                    lastWritten[x] = tag;
+                    tracker.setDirty(false);
+                }
+            }
+            // The tag we keep must not be shared, whoever gets the save is free to edit it
+            nbt.put(names[x], tracker != null ? tag.copy() : tag);
+        }
         return nbt;
     }
 
+    /**
+     * @return false only if every serializable provider tracks its own changes, and none of them have changed since they were last serialized
+     */
+    public boolean isDirty() {
+        for (int x = 0; x < writers.length; x++) {
+            if (trackers[x] == null || lastWritten[x] == null || trackers[x].isDirty())
+                return true;
+        }
+        return false;
+    }
+
     @Override
     public void deserializeNBT(HolderLookup.Provider registryAccess, CompoundTag nbt) {
         for (int x = 0; x < writers.length; x++) {
             if (nbt.contains(names[x]))
                 writers[x].deserializeNBT(registryAccess, nbt.get(names[x]));
+            lastWritten[x] = null;
         }
+        clearCache();
     }
 
     public void invalidate() {
+        clearCache();
         this.listeners.forEach(Runnable::run);
     }
+
+    private void clearCache() {
+        this.cache.set(Cache.EMPTY);
+    }
+
+    /**
+     * Capabilities known to be absent as a bitset, and a small open addressed int -> value map of the present ones,
+     * most dispatchers only ever see a handful of distinct queries.
+     */
+    private record Cache(long[] absent, int[] keys, LazyOptional<?>[] values, int size) {
+        private static final Cache EMPTY = new Cache(new long[0], new int[0], new LazyOptional<?>[0], 0);
+
+        private boolean isAbsent(int key) {
+            int word = key >>> 6;
+            return word < absent.length && (absent[word] & (1L << key)) != 0;
+        }
+
+        @Nullable
+        private LazyOptional<?> get(int key) {
+            if (keys.length == 0)
+                return null;
+            int mask = keys.length - 1;
+            for (int idx = mix(key) & mask; values[idx] != null; idx = (idx + 1) & mask) {
+                if (keys[idx] == key)
+                    return values[idx];
+            }
+            return null;
+        }
+
+        private Cache withAbsent(int key) {
+            int word = key >>> 6;
+            long[] bits = Arrays.copyOf(absent, Math.max(absent.length, word + 1));
+            bits[word] |= 1L << key;
+            return new Cache(bits, keys, values, size);
+        }
+
+        private Cache with(int key, LazyOptional<?> value) {
+            int capacity = keys.length == 0 ? 4 : (size + 1) * 4 > keys.length * 3 ? keys.length * 2 : keys.length;
+            int[] newKeys = new int[capacity];
+            LazyOptional<?>[] newValues = new LazyOptional<?>[capacity];
+            int newSize = 0;
+            for (int x = 0; x < keys.length; x++) {
+                if (values[x] != null && insert(newKeys, newValues, keys[x], values[x]))
+                    newSize++;
+            }
+            if (insert(newKeys, newValues, key, value))
+                newSize++;
+            return new Cache(absent, newKeys, newValues, newSize);
+        }
+
+        private static boolean insert(int[] keys, LazyOptional<?>[] values, int key, LazyOptional<?> value) {
+            int mask = keys.length - 1;
+            int idx = mix(key) & mask;
+            while (values[idx] != null && keys[idx] != key)
+                idx = (idx + 1) & mask;
+            boolean added = values[idx] == null;
+            keys[idx] = key;
+            values[idx] = value;
+            return added;
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
 }
@@ -54,13 +54,13 @@ public final class CapabilityManager {
         Capability<T> cap;
 
         synchronized (providers) {
-            final var parent = (Capability<T>)providers.computeIfAbsent(new Key(type, null), k -> new Capability<>(type.intern()));
+            final var parent = (Capability<T>)providers.computeIfAbsent(new Key(type, null), k -> new Capability<>(type.intern(), nextId++));
 
             if (name == null) {
                 cap = parent;
             } else  { // A Named child
                 cap = (Capability<T>)providers.computeIfAbsent(new Key(type, name), k -> {
-                    var ret = new Capability<>((parent.getName() + '#' + name.toString()).intern());
+                    var ret = new Capability<>((parent.getName() + '#' + name.toString()).intern(), nextId++);
                     parent.addListener(p -> ret.onRegister());
                     return ret;
                 });
@@ -85,6 +85,7 @@ public final class CapabilityManager {
     private static final Type AUTO_REGISTER = Type.getType(AutoRegisterCapability.class);
     private record Key(String type, ResourceLocation name) {};
     private static final Map<Key, Capability<?>> providers = new HashMap<>();
+    private static int nextId = 0; // Guarded by providers
 
     @ApiStatus.Internal
     public static void injectCapabilities(ModList modlist) {
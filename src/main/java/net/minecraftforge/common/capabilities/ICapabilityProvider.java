@@ -32,4 +32,16 @@ public interface ICapabilityProvider
     @NotNull default <T> LazyOptional<T> getCapability(@NotNull final Capability<T> cap) {
         return getCapability(cap, null);
     }
+
+    /**
+     * Whether a {@link CapabilityDispatcher} holding this provider may remember its answers.
+     * When true, a present result is reused for as long as the returned {@link LazyOptional} stays valid, and an absent
+     * result is reused until the dispatcher is invalidated.
+     * <p>
+     * Return false if the answer can change without the previously returned value being invalidated, for example if a
+     * capability can become available after it was reported as absent. Every query will then be passed through as before.
+     */
+    default boolean isCapabilityCacheable() {
+        return true;
+    }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.common.util;
+
+import net.minecraft.nbt.Tag;
+
+/**
+ * An {@link INBTSerializable} that knows whether its state has changed since it was last serialized.
+ * <p>
+ * When a capability provider implements this, {@link net.minecraftforge.common.capabilities.CapabilityDispatcher CapabilityDispatcher}
+ * reuses the tag from its last {@link #serializeNBT} call for as long as {@link #isDirty()} returns false, and clears the
+ * flag after serializing. Implementations must call {@link #markDirty()} whenever anything that would be saved changes,
+ * otherwise those changes will be lost.
+ */
+public interface IDirtyTrackingSerializable<T extends Tag> extends INBTSerializable<T> {
+    /**
+     * @return true if the state has changed since the last time it was serialized
+     */
+    boolean isDirty();
+
+    void setDirty(boolean dirty);
+
+    /**
+     * Flags this object as needing to be serialized again
+     */
+    default void markDirty() {
+        setDirty(true);
+    }
+}
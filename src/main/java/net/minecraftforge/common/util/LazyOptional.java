@@ -5,6 +5,8 @@
 
 package net.minecraftforge.common.util;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
@@ -14,8 +16,6 @@ import javax.annotation.ParametersAreNonnullByDefault;
 
 import net.minecraft.MethodsReturnNonnullByDefault;
 import net.minecraftforge.common.capabilities.Capability;
-import org.apache.commons.lang3.mutable.Mutable;
-import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,7 +34,13 @@ import org.jetbrains.annotations.Nullable;
  * that this accepts a {@link NonNullSupplier}, so the result of the supplier
  * must never be null.
  * <p>
- * The empty instance can be retrieved with {@link #empty()}.
+ * The empty instance can be retrieved with {@link #empty()}. Values that are already
+ * known can be wrapped without a supplier using {@link #ofValue(Object)}.
+ * <p>
+ * Instances are kept small, as one exists per capability per object: listener storage is
+ * only allocated once a listener is added, and resolution is claimed with a compare and set.
+ * The supplier is called at most once per successful resolution: if two threads resolve at once, the one that loses
+ * the claim waits for the other's value. If the supplier throws, the next caller tries again.
  *
  * @param <T> The type of the optional value.
  */
@@ -42,14 +48,32 @@ import org.jetbrains.annotations.Nullable;
 @MethodsReturnNonnullByDefault
 public class LazyOptional<T> {
     private final NonNullSupplier<T> supplier;
-    private final Object lock = new Object();
-    // null -> not resolved yet
-    // non-null and contains non-null value -> resolved
-    // non-null and contains null -> resolved, but supplier returned null (contract violation)
-    private Mutable<T> resolved;
-    private final Set<NonNullConsumer<LazyOptional<T>>> listeners = new HashSet<>();
+    // UNRESOLVED -> not resolved yet
+    // Resolving -> a thread is calling the supplier
+    // NULL_VALUE -> resolved, but supplier returned null (contract violation)
+    // anything else -> resolved
+    private volatile Object resolved;
+    // null -> no listeners, a single NonNullConsumer, or a Set of them
+    private @Nullable Object listeners;
     private boolean isValid = true;
 
+    private static final Object UNRESOLVED = new Object();
+    private static final Object NULL_VALUE = new Object();
+    private static final NonNullSupplier<?> PRE_RESOLVED = () -> {
+        throw new IllegalStateException("Supplier of a pre-resolved LazyOptional should never be called");
+    };
+    private static final VarHandle RESOLVED;
+    static {
+        try {
+            RESOLVED = MethodHandles.lookup().findVarHandle(LazyOptional.class, "resolved", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Claims resolution for the thread calling the supplier, so it can tell if the supplier comes back for its own value
+    private record Resolving(Thread thread) {}
+
     private static final @NotNull LazyOptional<Void> EMPTY = new LazyOptional<>(null);
     private static final Logger LOGGER = LogManager.getLogger();
 
@@ -65,6 +89,20 @@ public class LazyOptional<T> {
         return instanceSupplier == null ? empty() : new LazyOptional<>(instanceSupplier);
     }
 
+    /**
+     * Construct a new {@link LazyOptional} that already holds the given value. This avoids allocating a supplier
+     * for values that exist up front, such as a block entity's own item handler, and never needs resolving.
+     *
+     * @param value The value to hold
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> LazyOptional<T> ofValue(final T value) {
+        Objects.requireNonNull(value);
+        var ret = new LazyOptional<>((NonNullSupplier<T>)PRE_RESOLVED);
+        ret.resolved = value;
+        return ret;
+    }
+
     /**
      * @return The singleton empty instance
      */
@@ -86,23 +124,61 @@ public class LazyOptional<T> {
 
     private LazyOptional(@Nullable NonNullSupplier<T> instanceSupplier) {
         this.supplier = instanceSupplier;
+        this.resolved = UNRESOLVED;
     }
 
+    @SuppressWarnings("unchecked")
     private @Nullable T getValue() {
         if (!isValid || supplier == null)
             return null;
-        if (resolved == null) {
-            synchronized (lock) {
-                // resolved == null: Double checked locking to prevent two threads from resolving
-                if (resolved == null) {
-                    T temp = supplier.get();
-                    if (temp == null)
-                        LOGGER.catching(Level.WARN, new NullPointerException("Supplier should not return null value"));
-                    resolved = new MutableObject<>(temp);
+        Object ret = resolved;
+        if (ret == UNRESOLVED || ret instanceof Resolving)
+            ret = resolve();
+        return ret == NULL_VALUE ? null : (T)ret;
+    }
+
+    private Object resolve() {
+        var claim = new Resolving(Thread.currentThread());
+        if (!RESOLVED.compareAndSet(this, UNRESOLVED, claim))
+            return await();
+
+        // Left unresolved if the supplier throws, so the next caller tries again
+        Object value = UNRESOLVED;
+        try {
+            T temp = supplier.get();
+            if (temp == null)
+                LOGGER.catching(Level.WARN, new NullPointerException("Supplier should not return null value"));
+            value = temp == null ? NULL_VALUE : temp;
+        } finally {
+            synchronized (this) {
+                resolved = value;
+                notifyAll();
+            }
+        }
+        return value;
+    }
+
+    // Another thread claimed resolution, wait for it to publish the value instead of calling the supplier again
+    private Object await() {
+        Object ret = resolved;
+        if (ret instanceof Resolving claim && claim.thread() == Thread.currentThread())
+            throw new IllegalStateException("LazyOptional supplier tried to resolve its own LazyOptional");
+
+        boolean interrupted = false;
+        synchronized (this) {
+            while ((ret = resolved) instanceof Resolving) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
                 }
             }
         }
-        return resolved.getValue();
+        if (interrupted)
+            Thread.currentThread().interrupt();
+
+        // The resolving thread failed, so have a go ourselves
+        return ret == UNRESOLVED ? resolve() : ret;
     }
 
     private T getValueUnsafe() {
@@ -265,11 +341,20 @@ public class LazyOptional<T> {
      * <p>
      * If this {@link LazyOptional} is empty, the listener will be called immediately.
      */
+    @SuppressWarnings("unchecked")
     public void addListener(NonNullConsumer<LazyOptional<T>> listener) {
-        if (isPresent())
-            this.listeners.add(listener);
-        else
+        if (!isPresent()) {
             listener.accept(this);
+        } else if (this.listeners == null) {
+            this.listeners = listener;
+        } else if (this.listeners instanceof Set<?> set) {
+            ((Set<NonNullConsumer<LazyOptional<T>>>)set).add(listener);
+        } else if (!this.listeners.equals(listener)) {
+            Set<NonNullConsumer<LazyOptional<T>>> set = new HashSet<>(4);
+            set.add((NonNullConsumer<LazyOptional<T>>)this.listeners);
+            set.add(listener);
+            this.listeners = set;
+        }
     }
 
     /**
@@ -277,7 +362,10 @@ public class LazyOptional<T> {
      * This allows modder who know they will not need to be notified, to remove the hard reference that this holds to their listener.
      */
     public void removeListener(NonNullConsumer<LazyOptional<T>> listener) {
-        this.listeners.remove(listener);
+        if (this.listeners instanceof Set<?> set)
+            set.remove(listener);
+        else if (listener.equals(this.listeners))
+            this.listeners = null;
     }
 
     /**
@@ -294,11 +382,16 @@ public class LazyOptional<T> {
      * etc... This allows modders to keep a cache of capability objects instead of
      * re-checking them every tick.
      */
+    @SuppressWarnings("unchecked")
     public void invalidate() {
         if (this.isValid) {
             this.isValid = false;
-            this.listeners.forEach(e -> e.accept(this));
-            this.listeners.clear();
+            Object listeners = this.listeners;
+            this.listeners = null;
+            if (listeners instanceof Set<?> set)
+                ((Set<NonNullConsumer<LazyOptional<T>>>)set).forEach(e -> e.accept(this));
+            else if (listeners != null)
+                ((NonNullConsumer<LazyOptional<T>>)listeners).accept(this);
         }
     }
 }
@@ -9,6 +9,7 @@ import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.level.saveddata.SavedData;
 import net.minecraft.world.level.storage.DimensionDataStorage;
+import net.minecraftforge.common.capabilities.CapabilityDispatcher;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -31,7 +32,11 @@ public class LevelCapabilityData extends SavedData {
 
     @Override
     public boolean isDirty() {
-        return true;
+        if (super.isDirty())
+            return true;
+        if (serializable instanceof CapabilityDispatcher dispatcher)
+            return dispatcher.isDirty();
+        return serializable != null;
     }
 
     public static LevelCapabilityData compute(DimensionDataStorage data, @Nullable INBTSerializable<CompoundTag> caps) {
@@ -5,13 +5,21 @@
 
 package net.minecraftforge.common.util;
 
-import java.util.BitSet;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
 import java.util.function.Predicate;
 
+/**
+ * Matches inputs to tests as a bipartite matching problem, tests on one side and inputs on the other.
+ * <p>
+ * A perfect matching is found with Hopcroft-Karp, which is polynomial no matter how many inputs there are, and then
+ * shifted to the first one in test order, each test taking the lowest input it can while still leaving a match for
+ * the rest. That is the same answer the old backtracking search gave, without its exponential worst case.
+ */
 public class RecipeMatcher {
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
     /**
      * Attempts to match inputs to the specified tests. In the best way that all inputs are used by one test.
      * Will return null in any of these cases:
@@ -27,109 +35,208 @@ public class RecipeMatcher {
         if (elements != tests.size())
             return null; // There will not be a 1:1 mapping of inputs -> tests
 
-        int[] ret = new int[elements];
-        for (int x = 0; x < elements; x++)
-            ret[x] = -1;
+        // Tests could in theory match recipes themselves, so don't share the buffers with an outer call
+        Scratch scratch = SCRATCH.get();
+        if (scratch.inUse)
+            scratch = new Scratch();
 
-        // [UnusedInputs] [UnusedIngredients] [IngredientMatchMask]...
-        BitSet data = new BitSet((elements + 2) * elements);
+        scratch.inUse = true;
+        try {
+            return findMatches(inputs, tests, elements, scratch.ensure(elements));
+        } finally {
+            scratch.inUse = false;
+        }
+    }
+
+    private static <T> int[] findMatches(List<T> inputs, List<? extends Predicate<T>> tests, int elements, Scratch s) {
+        // The inputs each test matches, in order, test x's are edges[start[x]] to edges[start[x + 1]]
+        int[] start = s.start;
+        int[] edges = s.edges;
+        int[] inputMatches = s.inputMatches;
+        Arrays.fill(inputMatches, 0, elements, 0);
+
+        int count = 0;
         for (int x = 0; x < elements; x++) {
-            int matched = 0;
-            int offset = (x + 2) * elements;
+            start[x] = count;
             Predicate<T> test = tests.get(x);
-
             for (int y = 0; y < elements; y++) {
-                if (data.get(y))
-                    continue;
-
                 if (test.test(inputs.get(y))) {
-                    data.set(offset + y);
-                    matched++;
+                    edges[count++] = y;
+                    inputMatches[y]++;
                 }
             }
 
-            if (matched == 0)
+            if (count == start[x])
                 return null; //We have an test that matched non of the inputs
+        }
+        start[elements] = count;
 
-            if (matched == 1) {
-                if (!claim(ret, data, x, elements))
-                    return null; //We failed to claim this index, which means it caused something else to go to 0 matches, which makes the whole thing fail
-            }
+        for (int y = 0; y < elements; y++) {
+            if (inputMatches[y] == 0)
+                return null; //We have an input that no test matched
         }
 
-        if (data.nextClearBit(0) >= elements) //All items have been used, which means all tests have a match!
-            return ret;
+        Arrays.fill(s.testToInput, 0, elements, -1);
+        Arrays.fill(s.inputToTest, 0, elements, -1);
+        int matched = 0;
+        while (matched < elements && layer(s, elements)) {
+            for (int x = 0; x < elements; x++) {
+                if (s.testToInput[x] == -1 && augment(s, x))
+                    matched++;
+            }
+        }
 
-        // We should be in a state where multiple tests are satisfied by multiple inputs. So we need to try a branching recursive test.
-        // However for performance reasons, we should probably make that check a sub-set of the entire graph.
-        if (backtrack(data, ret, 0, elements))
-            return ret;
+        if (matched < elements)
+            return null; //Not every test can have its own input
 
-        return null; //Backtrack failed, no matches, we cry and go home now :(
+        makeFirst(s, elements);
+        return Arrays.copyOf(s.inputToTest, elements);
     }
 
-    // This is bad... need to think of a better cascade, recursion instead of stack?
-    private static boolean claim(int[] ret, BitSet data, int claimed, int elements) {
-        Queue<Integer> pending = new LinkedList<Integer>();
-        pending.add(claimed);
-
-        while (pending.peek() != null) {
-            int test = pending.poll();
-            int offset = (test + 2) * elements;
-            int used = data.nextSetBit(offset) - offset;
-
-            if (used >= elements || used < 0)
-                throw new IllegalStateException("What? We matched something, but it wasn't set in the range of this test! Test: " + test +  " Used: " + used);
-
-            data.set(used);
-            data.set(elements + test);
-            ret[used] = test;
+    /**
+     * Breadth first search from every unmatched test along alternating paths, recording the distance to each test.
+     *
+     * @return If any path reaches an unmatched input, meaning there is something to augment
+     */
+    private static boolean layer(Scratch s, int elements) {
+        int[] dist = s.dist;
+        int[] queue = s.queue;
+        int head = 0;
+        int tail = 0;
+        for (int x = 0; x < elements; x++) {
+            if (s.testToInput[x] == -1) {
+                dist[x] = 0;
+                queue[tail++] = x;
+            } else {
+                dist[x] = UNREACHED;
+            }
+        }
 
-            for (int x = 0; x < elements; x++) {
-                offset = (x + 2) * elements;
-                if (data.get(offset + used) && !data.get(elements + x)) {
-                    data.clear(offset + used);
-                    int count = 0;
-                    for (int y = offset; y < offset + elements; y++)
-                        if (data.get(y))
-                            count++;
-
-                    if (count == 0)
-                        return false; //Claiming this caused another test to lose its last match..
-
-                    if (count == 1)
-                        pending.add(x);
+        boolean found = false;
+        while (head < tail) {
+            int x = queue[head++];
+            for (int e = s.start[x]; e < s.start[x + 1]; e++) {
+                int owner = s.inputToTest[s.edges[e]];
+                if (owner == -1) {
+                    found = true;
+                } else if (dist[owner] == UNREACHED) {
+                    dist[owner] = dist[x] + 1;
+                    queue[tail++] = owner;
                 }
             }
         }
-
-        return true;
+        return found;
     }
 
-    //We use recursion here, why? Because I feel like it. Also because we should only ever be working in data sets < 9
-    private static boolean backtrack(BitSet data, int[] ret, int start, int elements) {
-        int test = data.nextClearBit(elements + start) - elements;
-        if (test >= elements)
-            return true; //Could not find the next unused test.
+    /**
+     * Depth first search along the layers found by {@link #layer(Scratch, int)}, flipping the path if it ends at an unmatched input.
+     * Recursion depth is bounded by the number of tests.
+     */
+    private static boolean augment(Scratch s, int x) {
+        for (int e = s.start[x]; e < s.start[x + 1]; e++) {
+            int y = s.edges[e];
+            int owner = s.inputToTest[y];
+            if (owner == -1 || (s.dist[owner] == s.dist[x] + 1 && augment(s, owner))) {
+                s.testToInput[x] = y;
+                s.inputToTest[y] = x;
+                return true;
+            }
+        }
+        s.dist[x] = UNREACHED;
+        return false;
+    }
 
-        if (test < 0)
-            throw new IllegalStateException("This should never happen, negative test in backtrack!");
+    /**
+     * Turns the perfect matching into the first one in test order. Each test in turn tries the inputs before its current
+     * one, taking the first that the tests after it can still be matched around, and is then fixed.
+     */
+    private static void makeFirst(Scratch s, int elements) {
+        boolean[] fixed = s.fixed;
+        Arrays.fill(fixed, 0, elements, false);
 
-        int offset = (test + 2) * elements;
         for (int x = 0; x < elements; x++) {
-            if (!data.get(offset + x) || data.get(x))
-                continue;
+            for (int e = s.start[x]; e < s.start[x + 1]; e++) {
+                int y = s.edges[e];
+                if (fixed[y])
+                    continue;
+                if (s.testToInput[x] == y || reroute(s, x, y, elements))
+                    break;
+            }
+            fixed[s.testToInput[x]] = true;
+        }
+    }
 
-            data.set(x);
+    /**
+     * Gives input y to test x, if whichever test has it now can be matched to the input x gives up instead,
+     * or to one freed along the way. Otherwise leaves everything as it was.
+     */
+    private static boolean reroute(Scratch s, int x, int y, int elements) {
+        int other = s.inputToTest[y];
+        int freed = s.testToInput[x];
+
+        s.testToInput[x] = y;
+        s.inputToTest[y] = x;
+        s.testToInput[other] = -1;
+        s.inputToTest[freed] = -1;
+        s.fixed[y] = true;
+
+        Arrays.fill(s.visited, 0, elements, false);
+        if (findPath(s, other))
+            return true;
+
+        s.fixed[y] = false;
+        s.testToInput[x] = freed;
+        s.inputToTest[freed] = x;
+        s.testToInput[other] = y;
+        s.inputToTest[y] = other;
+        return false;
+    }
+
+    // Alternating path from test x to the one free input, not touching anything fixed
+    private static boolean findPath(Scratch s, int x) {
+        for (int e = s.start[x]; e < s.start[x + 1]; e++) {
+            int y = s.edges[e];
+            if (s.fixed[y] || s.visited[y])
+                continue;
+            s.visited[y] = true;
 
-            if (backtrack(data, ret, test + 1, elements)) {
-                ret[x] = test;
+            int owner = s.inputToTest[y];
+            if (owner == -1 || findPath(s, owner)) {
+                s.testToInput[x] = y;
+                s.inputToTest[y] = x;
                 return true;
             }
-
-            data.clear(x);
         }
-
         return false;
     }
+
+    private static class Scratch {
+        private boolean inUse;
+        private int capacity = -1;
+        private int[] start;
+        private int[] edges;
+        private int[] inputMatches;
+        private int[] testToInput;
+        private int[] inputToTest;
+        private int[] dist;
+        private int[] queue;
+        private boolean[] fixed;
+        private boolean[] visited;
+
+        private Scratch ensure(int elements) {
+            if (elements > capacity) {
+                capacity = Math.max(elements, 9);
+                start = new int[capacity + 1];
+                edges = new int[capacity * capacity];
+                inputMatches = new int[capacity];
+                testToInput = new int[capacity];
+                inputToTest = new int[capacity];
+                dist = new int[capacity];
+                queue = new int[capacity];
+                fixed = new boolean[capacity];
+                visited = new boolean[capacity];
+            }
+            return this;
+        }
+    }
 }
@@ -27,6 +27,7 @@ import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.fluids.capability.IFluidHandler;
 import net.minecraftforge.fluids.capability.IFluidHandlerItem;
+import net.minecraftforge.fluids.capability.IFluidHandlerTransaction;
 import net.minecraftforge.fluids.capability.wrappers.BlockWrapper;
 import net.minecraftforge.fluids.capability.wrappers.BucketPickupHandlerWrapper;
 import net.minecraftforge.fluids.capability.wrappers.FluidBlockWrapper;
@@ -355,6 +356,10 @@ public class FluidUtil
     @NotNull
     public static FluidStack tryFluidTransfer(IFluidHandler fluidDestination, IFluidHandler fluidSource, int maxAmount, boolean doTransfer)
     {
+        if (canTransact(fluidDestination, fluidSource))
+        {
+            return tryFluidTransfer_Transaction(fluidDestination, fluidSource, null, maxAmount, doTransfer);
+        }
         FluidStack drainable = fluidSource.drain(maxAmount, IFluidHandler.FluidAction.SIMULATE);
         if (!drainable.isEmpty())
         {
@@ -377,6 +382,10 @@ public class FluidUtil
     @NotNull
     public static FluidStack tryFluidTransfer(IFluidHandler fluidDestination, IFluidHandler fluidSource, FluidStack resource, boolean doTransfer)
     {
+        if (canTransact(fluidDestination, fluidSource))
+        {
+            return tryFluidTransfer_Transaction(fluidDestination, fluidSource, resource, resource.getAmount(), doTransfer);
+        }
         FluidStack drainable = fluidSource.drain(resource, IFluidHandler.FluidAction.SIMULATE);
         if (!drainable.isEmpty() && resource.isFluidEqual(drainable))
         {
@@ -416,6 +425,58 @@ public class FluidUtil
         return FluidStack.EMPTY;
     }
 
+    /**
+     * Transactions on the same handler can't see each other, so a handler transferring to itself has to go the slow way.
+     */
+    private static boolean canTransact(IFluidHandler fluidDestination, IFluidHandler fluidSource)
+    {
+        return fluidDestination != fluidSource && fluidDestination.supportsTransactions() && fluidSource.supportsTransactions();
+    }
+
+    /**
+     * Same as {@link #tryFluidTransfer_Internal(IFluidHandler, IFluidHandler, FluidStack, boolean)}, but stages the drain
+     * and fill in transactions instead of simulating both and then doing them again.
+     *
+     * @param resource The fluid to transfer, or null to transfer any fluid up to maxAmount
+     */
+    @NotNull
+    private static FluidStack tryFluidTransfer_Transaction(IFluidHandler fluidDestination, IFluidHandler fluidSource, @Nullable FluidStack resource, int maxAmount, boolean doTransfer)
+    {
+        try (IFluidHandlerTransaction source = fluidSource.openTransaction();
+             IFluidHandlerTransaction destination = fluidDestination.openTransaction())
+        {
+            FluidStack drained = resource == null ? source.drain(maxAmount) : source.drain(resource);
+            if (drained.isEmpty() || (resource != null && !resource.isFluidEqual(drained)))
+            {
+                return FluidStack.EMPTY;
+            }
+
+            int filled = destination.fill(drained);
+            if (filled <= 0)
+            {
+                return FluidStack.EMPTY;
+            }
+            if (filled < drained.getAmount())
+            {
+                // Only take what fits
+                source.abort();
+                drained.setAmount(filled);
+                drained = source.drain(drained);
+                if (drained.getAmount() != filled)
+                {
+                    return FluidStack.EMPTY;
+                }
+            }
+
+            if (doTransfer)
+            {
+                source.commit();
+                destination.commit();
+            }
+            return drained;
+        }
+    }
+
     /**
      * Helper method to get an {@link IFluidHandlerItem} for an itemStack.
      *
@@ -108,4 +108,24 @@ public interface IFluidHandler
     @NotNull
     FluidStack drain(int maxDrain, FluidAction action);
 
+    /**
+     * Opens a transaction to stage changes to this handler and then apply them all at once.
+     * Handlers without a transaction of their own get {@link IFluidHandlerTransaction.Simulated}, which does the work twice,
+     * so callers that only care about speed should check {@link #supportsTransactions()} first.
+     */
+    @NotNull
+    default IFluidHandlerTransaction openTransaction()
+    {
+        return new IFluidHandlerTransaction.Simulated(this);
+    }
+
+    /**
+     * @return TRUE if {@link #openTransaction()} returns a transaction that stages changes without simulating them,
+     * making it cheaper than a simulated call followed by an executed one.
+     */
+    default boolean supportsTransactions()
+    {
+        return false;
+    }
+
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.fluids.capability;
+
+import net.minecraftforge.fluids.FluidStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A set of changes to an {@link IFluidHandler} that are staged first, and then either all applied with {@link #commit()}
+ * or thrown away, so that a transfer doesn't have to be done once with {@link IFluidHandler.FluidAction#SIMULATE} and
+ * again with {@link IFluidHandler.FluidAction#EXECUTE}.
+ * <p>
+ * Staged changes see the changes staged before them in the same transaction. Nothing else sees them until they are
+ * committed, including other transactions on the same handler, and changes made to the handler through other means
+ * while a transaction is open may be overwritten when it commits. So keep transactions short, and don't open two on
+ * the same handler at once.
+ * <p>
+ * Obtained from {@link IFluidHandler#openTransaction()}, and meant to be used with try-with-resources.
+ */
+public interface IFluidHandlerTransaction extends AutoCloseable
+{
+    /**
+     * Stages a fill, as {@link IFluidHandler#fill(FluidStack, IFluidHandler.FluidAction)} would do it.
+     *
+     * @return Amount of resource that would be filled
+     */
+    int fill(FluidStack resource);
+
+    /**
+     * Stages a drain, as {@link IFluidHandler#drain(FluidStack, IFluidHandler.FluidAction)} would do it.
+     *
+     * @return FluidStack representing the Fluid and amount that would be drained
+     */
+    @NotNull
+    FluidStack drain(FluidStack resource);
+
+    /**
+     * Stages a drain, as {@link IFluidHandler#drain(int, IFluidHandler.FluidAction)} would do it.
+     *
+     * @return FluidStack representing the Fluid and amount that would be drained
+     */
+    @NotNull
+    FluidStack drain(int maxDrain);
+
+    /**
+     * Applies every staged change to the handler. The transaction can not be used afterwards.
+     */
+    void commit();
+
+    /**
+     * Throws away every staged change, leaving the transaction open for new ones.
+     */
+    void abort();
+
+    /**
+     * Throws away any changes that were not committed.
+     */
+    @Override
+    void close();
+
+    /**
+     * The default transaction, for handlers that don't have one of their own. The change is checked against the handler
+     * with {@link IFluidHandler.FluidAction#SIMULATE} when staged, and done again for real on commit.
+     * <p>
+     * Simulating can't see earlier staged changes, so this only allows one staged change at a time. Any more are refused,
+     * as if the handler were full or empty, until the transaction is aborted.
+     */
+    class Simulated implements IFluidHandlerTransaction
+    {
+        private final IFluidHandler handler;
+        // The fluid to fill or drain, or null if nothing is staged
+        @Nullable
+        private FluidStack staged;
+        private boolean filling;
+        private boolean byAmount;
+
+        public Simulated(IFluidHandler handler)
+        {
+            this.handler = handler;
+        }
+
+        @Override
+        public int fill(FluidStack resource)
+        {
+            if (staged != null)
+                return 0;
+
+            int filled = handler.fill(resource, IFluidHandler.FluidAction.SIMULATE);
+            if (filled > 0)
+                stage(new FluidStack(resource, filled), true, false);
+            return filled;
+        }
+
+        @Override
+        @NotNull
+        public FluidStack drain(FluidStack resource)
+        {
+            if (staged != null)
+                return FluidStack.EMPTY;
+
+            FluidStack drained = handler.drain(resource, IFluidHandler.FluidAction.SIMULATE);
+            if (!drained.isEmpty())
+                stage(drained.copy(), false, false);
+            return drained;
+        }
+
+        @Override
+        @NotNull
+        public FluidStack drain(int maxDrain)
+        {
+            if (staged != null)
+                return FluidStack.EMPTY;
+
+            FluidStack drained = handler.drain(maxDrain, IFluidHandler.FluidAction.SIMULATE);
+            if (!drained.isEmpty())
+                stage(drained.copy(), false, true);
+            return drained;
+        }
+
+        private void stage(FluidStack stack, boolean filling, boolean byAmount)
+        {
+            this.staged = stack;
+            this.filling = filling;
+            this.byAmount = byAmount;
+        }
+
+        @Override
+        public void commit()
+        {
+            FluidStack stack = staged;
+            staged = null;
+            if (stack == null)
+                return;
+
+            if (filling)
+                handler.fill(stack, IFluidHandler.FluidAction.EXECUTE);
+            else if (byAmount)
+                handler.drain(stack.getAmount(), IFluidHandler.FluidAction.EXECUTE);
+            else
+                handler.drain(stack, IFluidHandler.FluidAction.EXECUTE);
+        }
+
+        @Override
+        public void abort()
+        {
+            staged = null;
+        }
+
+        @Override
+        public void close()
+        {
+            staged = null;
+        }
+    }
+}
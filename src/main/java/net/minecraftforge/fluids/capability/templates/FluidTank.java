@@ -9,7 +9,9 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.IFluidTank;
 import net.minecraftforge.fluids.capability.IFluidHandler;
+import net.minecraftforge.fluids.capability.IFluidHandlerTransaction;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.Predicate;
 
@@ -20,6 +22,23 @@ import java.util.function.Predicate;
  */
 public class FluidTank implements IFluidHandler, IFluidTank {
 
+    private static final ClassValue<Boolean> NATIVE_TRANSACTIONS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type)
+        {
+            try
+            {
+                return type.getMethod("fill", FluidStack.class, FluidAction.class).getDeclaringClass() == FluidTank.class &&
+                    type.getMethod("drain", FluidStack.class, FluidAction.class).getDeclaringClass() == FluidTank.class &&
+                    type.getMethod("drain", int.class, FluidAction.class).getDeclaringClass() == FluidTank.class;
+            }
+            catch (NoSuchMethodException e)
+            {
+                return false;
+            }
+        }
+    };
+
     protected Predicate<FluidStack> validator;
     @NotNull
     protected FluidStack fluid = FluidStack.EMPTY;
@@ -184,6 +203,23 @@ public class FluidTank implements IFluidHandler, IFluidTank {
         return stack;
     }
 
+    @NotNull
+    @Override
+    public IFluidHandlerTransaction openTransaction()
+    {
+        return supportsTransactions() ? new Transaction() : IFluidHandler.super.openTransaction();
+    }
+
+    /**
+     * Only true when {@link #fill(FluidStack, FluidAction)} and both drain methods are not overridden,
+     * as our transaction stages changes with the same rules those use here.
+     */
+    @Override
+    public boolean supportsTransactions()
+    {
+        return NATIVE_TRANSACTIONS.get(getClass());
+    }
+
     protected void onContentsChanged()
     {
 
@@ -204,4 +240,98 @@ public class FluidTank implements IFluidHandler, IFluidTank {
         return Math.max(0, capacity - fluid.getAmount());
     }
 
+    private final class Transaction implements IFluidHandlerTransaction
+    {
+        // The contents once committed, or null if unchanged
+        @Nullable
+        private FluidStack staged;
+        private boolean open = true;
+
+        private FluidStack get()
+        {
+            return staged != null ? staged : fluid;
+        }
+
+        @Override
+        public int fill(FluidStack resource)
+        {
+            checkOpen();
+            if (resource.isEmpty() || !isFluidValid(resource))
+            {
+                return 0;
+            }
+            FluidStack current = get();
+            if (!current.isEmpty() && !current.isFluidEqual(resource))
+            {
+                return 0;
+            }
+            int filled = Math.min(capacity - current.getAmount(), resource.getAmount());
+            if (filled > 0)
+            {
+                staged = new FluidStack(current.isEmpty() ? resource : current, current.getAmount() + filled);
+            }
+            return Math.max(filled, 0);
+        }
+
+        @NotNull
+        @Override
+        public FluidStack drain(FluidStack resource)
+        {
+            checkOpen();
+            if (resource.isEmpty() || !resource.isFluidEqual(get()))
+            {
+                return FluidStack.EMPTY;
+            }
+            return drain(resource.getAmount());
+        }
+
+        @NotNull
+        @Override
+        public FluidStack drain(int maxDrain)
+        {
+            checkOpen();
+            FluidStack current = get();
+            int drained = Math.min(maxDrain, current.getAmount());
+            FluidStack stack = new FluidStack(current, drained);
+            if (drained > 0)
+            {
+                staged = new FluidStack(current, current.getAmount() - drained);
+            }
+            return stack;
+        }
+
+        @Override
+        public void commit()
+        {
+            checkOpen();
+            open = false;
+            if (staged != null)
+            {
+                fluid = staged;
+                staged = null;
+                onContentsChanged();
+            }
+        }
+
+        @Override
+        public void abort()
+        {
+            staged = null;
+        }
+
+        @Override
+        public void close()
+        {
+            open = false;
+            staged = null;
+        }
+
+        private void checkOpen()
+        {
+            if (!open)
+            {
+                throw new IllegalStateException("Transaction is already closed");
+            }
+        }
+    }
 }
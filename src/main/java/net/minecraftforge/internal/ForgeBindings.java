@@ -12,6 +12,7 @@ import net.minecraftforge.fml.I18NParser;
 import net.minecraftforge.fml.IBindingsProvider;
 import net.minecraftforge.fml.config.IConfigEvent;
 import net.minecraftforge.fml.event.config.ModConfigEvent;
+import net.minecraftforge.network.tasks.ServerConfigCache;
 
 import java.util.function.Supplier;
 
@@ -44,6 +45,21 @@ public final class ForgeBindings implements IBindingsProvider {
 
     @Override
     public Supplier<IConfigEvent.ConfigConfig> getConfigConfiguration() {
-        return () -> new IConfigEvent.ConfigConfig(ModConfigEvent.Loading::new, ModConfigEvent.Reloading::new, ModConfigEvent.Unloading::new);
+        // Loading and reloading mean the file may have changed, so update the copy we keep to sync to clients.
+        // These also fire on the client for synced configs, which aren't backed by a file and are skipped.
+        return () -> new IConfigEvent.ConfigConfig(
+            config -> {
+                ServerConfigCache.refresh(config);
+                return new ModConfigEvent.Loading(config);
+            },
+            config -> {
+                ServerConfigCache.refresh(config);
+                return new ModConfigEvent.Reloading(config);
+            },
+            config -> {
+                ServerConfigCache.invalidate(config);
+                return new ModConfigEvent.Unloading(config);
+            }
+        );
     }
 }
@@ -105,4 +105,78 @@ public interface IItemHandler
      *         false if the slot can never insert the ItemStack in any situation.
      */
     boolean isItemValid(int slot, @NotNull ItemStack stack);
+
+    /**
+     * <p>
+     * Optional. Asks to be told the next time anything changes that could change the results of
+     * {@link #insertItem(int, ItemStack, boolean)} or {@link #extractItem(int, int, boolean)}, so that callers which
+     * found nothing to do, like hoppers facing an empty or full inventory, can stop polling this handler until then.
+     * </p>
+     * <p>
+     * A handler that accepts the listener <em>must</em> run it exactly once, after the next such change, and then forget it.
+     * Listeners may be run on whichever thread made the change, and should do nothing but note that it happened.
+     * </p>
+     *
+     * @param listener Run once after the next change
+     * @return true if the listener was accepted, false if this handler does not support change notifications,
+     *         in which case the caller has to keep polling.
+     */
+    default boolean onNextChange(@NotNull Runnable listener)
+    {
+        return false;
+    }
+
+    /**
+     * Opens a transaction to stage changes to this handler and then apply them all at once.
+     * Handlers without a transaction of their own get {@link IItemHandlerTransaction.Simulated}, which does the work twice,
+     * so callers that only care about speed should check {@link #supportsTransactions()} first.
+     */
+    @NotNull
+    default IItemHandlerTransaction openTransaction()
+    {
+        return new IItemHandlerTransaction.Simulated(this);
+    }
+
+    /**
+     * @return true if {@link #openTransaction()} returns a transaction that stages changes without simulating them,
+     *         making it cheaper than a simulated call followed by a real one.
+     */
+    default boolean supportsTransactions()
+    {
+        return false;
+    }
+
+    /**
+     * Visits every slot in order with its contents, as looping over {@link #getStackInSlot(int)} would, but lets wrappers
+     * around other handlers walk them directly instead of routing each slot on its own.
+     * The stacks passed to the visitor follow the same rules as {@link #getStackInSlot(int)}, and <em>MUST NOT</em> be modified.
+     * <p>
+     * The visitor <em>may</em> change this handler through its other methods, such as inserting into the slot it was
+     * just given. Implementations must allow that, and slots visited afterwards must reflect the change, so don't walk
+     * an iterator over a backing collection that fails or skips when it is modified; index into it instead.
+     * </p>
+     *
+     * @param visitor Called for each slot, returns false to stop early
+     * @return false if the visitor stopped early, true if every slot was visited
+     */
+    default boolean visitSlots(@NotNull SlotVisitor visitor)
+    {
+        for (int slot = 0; slot < getSlots(); slot++)
+        {
+            if (!visitor.visit(slot, getStackInSlot(slot)))
+                return false;
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    interface SlotVisitor
+    {
+        /**
+         * @param slot  The slot in the visited handler
+         * @param stack The contents of the slot, must not be modified
+         * @return true to keep going, false to stop
+         */
+        boolean visit(int slot, @NotNull ItemStack stack);
+    }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.items;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A set of changes to an {@link IItemHandler} that are staged first, and then either all applied with {@link #commit()}
+ * or thrown away. This lets a caller find out what a move would do and then do it, without asking the handler twice
+ * like {@code simulate} followed by a real call does.
+ * <p>
+ * Staged changes see the changes staged before them in the same transaction. Nothing else sees them until they are
+ * committed, including other transactions on the same handler, and changes made to the handler through other means
+ * while a transaction is open may be overwritten when it commits. So keep transactions short, and don't open two on
+ * the same handler at once.
+ * <p>
+ * Obtained from {@link IItemHandler#openTransaction()}, and meant to be used with try-with-resources:
+ * <pre>{@code
+ * try (var transaction = handler.openTransaction()) {
+ *     if (transaction.extractItem(slot, 1).isEmpty())
+ *         return;
+ *     transaction.commit();
+ * }
+ * }</pre>
+ */
+public interface IItemHandlerTransaction extends AutoCloseable
+{
+    /**
+     * Stages an insertion, as {@link IItemHandler#insertItem(int, ItemStack, boolean)} would do it.
+     *
+     * @return The remaining ItemStack that would not be inserted
+     */
+    @NotNull
+    ItemStack insertItem(int slot, @NotNull ItemStack stack);
+
+    /**
+     * Stages an extraction, as {@link IItemHandler#extractItem(int, int, boolean)} would do it.
+     *
+     * @return The ItemStack that would be extracted. It is the caller's to keep once this transaction is committed.
+     */
+    @NotNull
+    ItemStack extractItem(int slot, int amount);
+
+    /**
+     * Applies every staged change to the handler. The transaction can not be used afterwards.
+     */
+    void commit();
+
+    /**
+     * Throws away every staged change, leaving the transaction open for new ones.
+     */
+    void abort();
+
+    /**
+     * Throws away any changes that were not committed.
+     */
+    @Override
+    void close();
+
+    /**
+     * The default transaction, for handlers that don't have one of their own. Every change is checked against the
+     * handler with {@code simulate} when staged, and done again for real on commit.
+     * <p>
+     * Simulating can't see earlier staged changes, so this only allows one staged change per slot. Further changes to
+     * a slot that already has one are refused, as if the slot were full or empty.
+     */
+    class Simulated implements IItemHandlerTransaction
+    {
+        private final IItemHandler handler;
+        private final List<Change> staged = new ArrayList<>(1);
+
+        public Simulated(IItemHandler handler)
+        {
+            this.handler = handler;
+        }
+
+        @Override
+        @NotNull
+        public ItemStack insertItem(int slot, @NotNull ItemStack stack)
+        {
+            if (stack.isEmpty() || isStaged(slot))
+                return stack;
+
+            ItemStack remainder = handler.insertItem(slot, stack, true);
+            if (remainder.getCount() < stack.getCount())
+                staged.add(new Change(slot, stack.copy(), 0));
+            return remainder;
+        }
+
+        @Override
+        @NotNull
+        public ItemStack extractItem(int slot, int amount)
+        {
+            if (amount == 0 || isStaged(slot))
+                return ItemStack.EMPTY;
+
+            ItemStack extracted = handler.extractItem(slot, amount, true);
+            if (!extracted.isEmpty())
+                staged.add(new Change(slot, ItemStack.EMPTY, amount));
+            return extracted;
+        }
+
+        @Override
+        public void commit()
+        {
+            for (Change change : staged)
+            {
+                if (change.amount > 0)
+                    handler.extractItem(change.slot, change.amount, false);
+                else
+                    handler.insertItem(change.slot, change.stack, false);
+            }
+            staged.clear();
+        }
+
+        @Override
+        public void abort()
+        {
+            staged.clear();
+        }
+
+        @Override
+        public void close()
+        {
+            staged.clear();
+        }
+
+        private boolean isStaged(int slot)
+        {
+            for (Change change : staged)
+            {
+                if (change.slot == slot)
+                    return true;
+            }
+            return false;
+        }
+
+        // An insertion of stack, or an extraction of amount
+        private record Change(int slot, ItemStack stack, int amount) {}
+    }
+}
@@ -55,39 +55,49 @@ public class ItemHandlerHelper {
         if (inventory == null || stack.isEmpty())
             return stack;
 
+        // indexed handlers know which slots can take the stack without looking at all of them
+        if (inventory instanceof ItemStackHandler handler && handler.isSlotIndexed())
+            return handler.insertItemStacked(stack, simulate);
+
         // not stackable -> just insert into a new slot
         if (!stack.isStackable()) {
             return insertItem(inventory, stack, simulate);
         }
 
-        int sizeInventory = inventory.getSlots();
+        var inserter = new StackedInserter(inventory, stack, simulate);
 
         // go through the inventory and try to fill up already existing items
-        for (int i = 0; i < sizeInventory; i++) {
-            ItemStack slot = inventory.getStackInSlot(i);
-            if (canItemStacksStack(slot, stack)) {
-                stack = inventory.insertItem(i, stack, simulate);
-
-                if (stack.isEmpty()) {
-                    break;
-                }
-            }
-        }
+        inventory.visitSlots(inserter);
 
         // insert remainder into empty slots
-        if (!stack.isEmpty()) {
-            // find empty slot
-            for (int i = 0; i < sizeInventory; i++) {
-                if (inventory.getStackInSlot(i).isEmpty()) {
-                    stack = inventory.insertItem(i, stack, simulate);
-                    if (stack.isEmpty()) {
-                        break;
-                    }
-                }
-            }
+        if (!inserter.stack.isEmpty()) {
+            inserter.emptySlots = true;
+            inventory.visitSlots(inserter);
         }
 
-        return stack;
+        return inserter.stack;
+    }
+
+    // Walks the slots with IItemHandler#visitSlots, so wrappers don't have to route every slot we only look at.
+    // Inserting while visiting is allowed by its contract.
+    private static final class StackedInserter implements IItemHandler.SlotVisitor {
+        private final IItemHandler inventory;
+        private final boolean simulate;
+        private ItemStack stack;
+        private boolean emptySlots;
+
+        private StackedInserter(IItemHandler inventory, ItemStack stack, boolean simulate) {
+            this.inventory = inventory;
+            this.stack = stack;
+            this.simulate = simulate;
+        }
+
+        @Override
+        public boolean visit(int slot, @NotNull ItemStack existing) {
+            if (emptySlots ? existing.isEmpty() : canItemStacksStack(existing, stack))
+                stack = inventory.insertItem(slot, stack, simulate);
+            return !stack.isEmpty();
+        }
     }
 
     /** giveItemToPlayer without preferred slot */
@@ -146,20 +156,30 @@ public class ItemHandlerHelper {
         if (inv == null) {
             return 0;
         } else {
-            int itemsFound = 0;
-            float proportion = 0.0F;
+            var counter = new FullnessCounter(inv);
+            inv.visitSlots(counter);
+
+            float proportion = counter.proportion / (float)inv.getSlots();
+            return Mth.floor(proportion * 14.0F) + (counter.itemsFound > 0 ? 1 : 0);
+        }
+    }
 
-            for (int j = 0; j < inv.getSlots(); ++j) {
-                ItemStack itemstack = inv.getStackInSlot(j);
+    private static final class FullnessCounter implements IItemHandler.SlotVisitor {
+        private final IItemHandler inv;
+        private int itemsFound;
+        private float proportion;
 
-                if (!itemstack.isEmpty()) {
-                    proportion += (float)itemstack.getCount() / (float)Math.min(inv.getSlotLimit(j), itemstack.getMaxStackSize());
-                    ++itemsFound;
-                }
-            }
+        private FullnessCounter(IItemHandler inv) {
+            this.inv = inv;
+        }
 
-            proportion = proportion / (float)inv.getSlots();
-            return Mth.floor(proportion * 14.0F) + (itemsFound > 0 ? 1 : 0);
+        @Override
+        public boolean visit(int slot, @NotNull ItemStack itemstack) {
+            if (!itemstack.isEmpty()) {
+                proportion += (float)itemstack.getCount() / (float)Math.min(inv.getSlotLimit(slot), itemstack.getMaxStackSize());
+                ++itemsFound;
+            }
+            return true;
         }
     }
 }
@@ -5,38 +5,80 @@
 
 package net.minecraftforge.items;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.world.ContainerHelper;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.NonNullList;
 import net.minecraftforge.common.util.INBTSerializable;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, INBTSerializable<CompoundTag> {
     protected NonNullList<ItemStack> stacks;
+    private final boolean indexed;
+    // Only used when indexed. The item in each slot, null if empty, and the reverse of that.
+    private Item[] slotItems;
+    private Reference2ObjectOpenHashMap<Item, BitSet> slotsByItem;
+    private BitSet emptySlots;
+    @Nullable
+    private List<Runnable> changeListeners;
+
+    private static final ClassValue<Boolean> NATIVE_TRANSACTIONS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("insertItem", int.class, ItemStack.class, boolean.class).getDeclaringClass() == ItemStackHandler.class &&
+                    type.getMethod("extractItem", int.class, int.class, boolean.class).getDeclaringClass() == ItemStackHandler.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
 
     public ItemStackHandler() {
         this(1);
     }
 
     public ItemStackHandler(int size) {
-        stacks = NonNullList.withSize(size, ItemStack.EMPTY);
+        this(size, false);
+    }
+
+    /**
+     * @param indexed Keep track of which slots hold each item and which are empty, so that
+     *                {@link #insertItemStacked(ItemStack, boolean)} doesn't have to look at every slot. Worth it for
+     *                handlers with many slots. Subclasses that change {@link #stacks} directly, rather than through
+     *                the methods of this class, must call {@link #rebuildSlotIndex()} afterwards.
+     */
+    public ItemStackHandler(int size, boolean indexed) {
+        this.stacks = NonNullList.withSize(size, ItemStack.EMPTY);
+        this.indexed = indexed;
+        rebuildSlotIndex();
     }
 
     public ItemStackHandler(NonNullList<ItemStack> stacks) {
         this.stacks = stacks;
+        this.indexed = false;
     }
 
     public void setSize(int size) {
         stacks = NonNullList.withSize(size, ItemStack.EMPTY);
+        rebuildSlotIndex();
+        notifyChangeListeners();
     }
 
     @Override
     public void setStackInSlot(int slot, @NotNull ItemStack stack) {
         validateSlotIndex(slot);
         this.stacks.set(slot, stack);
-        onContentsChanged(slot);
+        contentsChanged(slot);
     }
 
     @Override
@@ -64,14 +106,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
 
         ItemStack existing = this.stacks.get(slot);
 
-        int limit = getStackLimit(slot, stack);
-
-        if (!existing.isEmpty()) {
-            if (!ItemHandlerHelper.canItemStacksStack(stack, existing))
-                return stack;
-
-            limit -= existing.getCount();
-        }
+        int limit = getInsertLimit(slot, existing, stack);
 
         if (limit <= 0)
             return stack;
@@ -84,7 +119,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
             } else {
                 existing.grow(reachedLimit ? limit : stack.getCount());
             }
-            onContentsChanged(slot);
+            contentsChanged(slot);
         }
 
         return reachedLimit ? ItemHandlerHelper.copyStackWithSize(stack, stack.getCount()- limit) : ItemStack.EMPTY;
@@ -108,7 +143,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
         if (existing.getCount() <= toExtract) {
             if (!simulate) {
                 this.stacks.set(slot, ItemStack.EMPTY);
-                onContentsChanged(slot);
+                contentsChanged(slot);
                 return existing;
             } else {
                 return existing.copy();
@@ -116,7 +151,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
         } else {
             if (!simulate) {
                 this.stacks.set(slot, ItemHandlerHelper.copyStackWithSize(existing, existing.getCount() - toExtract));
-                onContentsChanged(slot);
+                contentsChanged(slot);
             }
 
             return ItemHandlerHelper.copyStackWithSize(existing, toExtract);
@@ -128,6 +163,200 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
         return 64;
     }
 
+    /**
+     * Inserts the stack into this handler, filling up slots already holding the same item first, like
+     * {@link ItemHandlerHelper#insertItemStacked(IItemHandler, ItemStack, boolean)}. When this handler is indexed only
+     * the slots that can take the stack are looked at.
+     *
+     * @return The remainder that could not be inserted
+     */
+    @NotNull
+    public ItemStack insertItemStacked(@NotNull ItemStack stack, boolean simulate) {
+        if (!indexed)
+            return ItemHandlerHelper.insertItemStacked(this, stack, simulate);
+        if (stack.isEmpty())
+            return stack;
+
+        var matching = slotsByItem.get(stack.getItem());
+        if (matching != null) {
+            for (int slot = matching.nextSetBit(0); slot >= 0; slot = matching.nextSetBit(slot + 1)) {
+                if (ItemHandlerHelper.canItemStacksStack(getStackInSlot(slot), stack)) {
+                    stack = insertItem(slot, stack, simulate);
+                    if (stack.isEmpty())
+                        return ItemStack.EMPTY;
+                }
+            }
+        }
+
+        for (int slot = emptySlots.nextSetBit(0); slot >= 0; slot = emptySlots.nextSetBit(slot + 1)) {
+            stack = insertItem(slot, stack, simulate);
+            if (stack.isEmpty())
+                return ItemStack.EMPTY;
+        }
+
+        return stack;
+    }
+
+    /**
+     * Inserts each of the stacks in order, as {@link #insertItemStacked(ItemStack, boolean)} does.
+     * When simulating, each stack sees the ones before it as if they had been inserted, by staging them all in a
+     * transaction that is never committed. Subclasses without a native transaction, see {@link #supportsTransactions()},
+     * only stage one change per slot, so a simulation may report less fitting than really would, but never more.
+     *
+     * @return The remainder of each stack, in the same order
+     */
+    @NotNull
+    public List<ItemStack> insertItems(@NotNull List<ItemStack> items, boolean simulate) {
+        var ret = new ArrayList<ItemStack>(items.size());
+        if (!simulate) {
+            for (var stack : items)
+                ret.add(insertItemStacked(stack, false));
+            return ret;
+        }
+
+        try (var transaction = openTransaction()) {
+            for (var stack : items)
+                ret.add(transaction instanceof Transaction own ? own.insertStacked(stack) : insertStacked(transaction, stack));
+        }
+        return ret;
+    }
+
+    // insertItemStacked for a transaction that can't show us what it has staged
+    private ItemStack insertStacked(IItemHandlerTransaction transaction, ItemStack stack) {
+        for (int slot = 0; slot < getSlots() && !stack.isEmpty(); slot++) {
+            if (ItemHandlerHelper.canItemStacksStack(getStackInSlot(slot), stack))
+                stack = transaction.insertItem(slot, stack);
+        }
+        for (int slot = 0; slot < getSlots() && !stack.isEmpty(); slot++) {
+            if (getStackInSlot(slot).isEmpty())
+                stack = transaction.insertItem(slot, stack);
+        }
+        return stack;
+    }
+
+    /**
+     * @return If this handler keeps an index of its slots, see {@link #ItemStackHandler(int, boolean)}
+     */
+    public boolean isSlotIndexed() {
+        return indexed;
+    }
+
+    /**
+     * Rebuilds the slot index from the current contents. Only needed by subclasses that change {@link #stacks}
+     * directly on an indexed handler.
+     */
+    protected void rebuildSlotIndex() {
+        if (!indexed)
+            return;
+
+        slotItems = new Item[stacks.size()];
+        slotsByItem = new Reference2ObjectOpenHashMap<>();
+        emptySlots = new BitSet(stacks.size());
+        for (int slot = 0; slot < stacks.size(); slot++) {
+            var stack = stacks.get(slot);
+            if (stack.isEmpty()) {
+                emptySlots.set(slot);
+            } else {
+                slotItems[slot] = stack.getItem();
+                slotsByItem.computeIfAbsent(stack.getItem(), k -> new BitSet()).set(slot);
+            }
+        }
+    }
+
+    private void updateSlotIndex(int slot) {
+        if (!indexed)
+            return;
+
+        var stack = stacks.get(slot);
+        var item = stack.isEmpty() ? null : stack.getItem();
+        var old = slotItems[slot];
+        if (old == item)
+            return;
+
+        if (old == null) {
+            emptySlots.clear(slot);
+        } else {
+            var slots = slotsByItem.get(old);
+            slots.clear(slot);
+            if (slots.isEmpty())
+                slotsByItem.remove(old);
+        }
+
+        if (item == null)
+            emptySlots.set(slot);
+        else
+            slotsByItem.computeIfAbsent(item, k -> new BitSet()).set(slot);
+        slotItems[slot] = item;
+    }
+
+    private void contentsChanged(int slot) {
+        updateSlotIndex(slot);
+        onContentsChanged(slot);
+        notifyChangeListeners();
+    }
+
+    /**
+     * Change notifications are opt-in, as subclasses may override {@link #insertItem(int, ItemStack, boolean)},
+     * {@link #extractItem(int, int, boolean)} or {@link #isItemValid(int, ItemStack)} with rules that depend on more
+     * than the contents. Return true from this if they don't, or if you call {@link #notifyChangeListeners()} whenever
+     * whatever they depend on changes.
+     */
+    protected boolean supportsChangeListeners() {
+        return false;
+    }
+
+    @Override
+    public boolean onNextChange(@NotNull Runnable listener) {
+        if (!supportsChangeListeners())
+            return false;
+        if (changeListeners == null)
+            changeListeners = new ArrayList<>(1);
+        changeListeners.add(listener);
+        return true;
+    }
+
+    /**
+     * Runs, and forgets, every listener registered through {@link #onNextChange(Runnable)}.
+     * Called whenever the contents change through this class.
+     */
+    protected void notifyChangeListeners() {
+        var listeners = changeListeners;
+        if (listeners == null || listeners.isEmpty())
+            return;
+        changeListeners = null;
+        for (var listener : listeners)
+            listener.run();
+    }
+
+    // How many of the stack fit on top of existing, or 0 if they don't stack
+    private int getInsertLimit(int slot, ItemStack existing, ItemStack stack) {
+        int limit = getStackLimit(slot, stack);
+
+        if (!existing.isEmpty()) {
+            if (!ItemHandlerHelper.canItemStacksStack(stack, existing))
+                return 0;
+
+            limit -= existing.getCount();
+        }
+
+        return limit;
+    }
+
+    @Override
+    @NotNull
+    public IItemHandlerTransaction openTransaction() {
+        return supportsTransactions() ? new Transaction() : IItemHandler.super.openTransaction();
+    }
+
+    /**
+     * Only true when {@link #insertItem(int, ItemStack, boolean)} and {@link #extractItem(int, int, boolean)} are not
+     * overridden, as our transaction stages changes with the same rules those use here.
+     */
+    @Override
+    public boolean supportsTransactions() {
+        return NATIVE_TRANSACTIONS.get(getClass());
+    }
+
     protected int getStackLimit(int slot, @NotNull ItemStack stack) {
         return Math.min(getSlotLimit(slot), stack.getMaxStackSize());
     }
@@ -147,6 +376,8 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
     @Override
     public void deserializeNBT(HolderLookup.Provider lookup, CompoundTag nbt) {
         ContainerHelper.loadAllItems(nbt, stacks, lookup);
+        rebuildSlotIndex();
+        notifyChangeListeners();
         onLoad();
     }
 
@@ -160,4 +391,130 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
 
     protected void onContentsChanged(int slot) {
     }
+
+    private final class Transaction implements IItemHandlerTransaction {
+        private final Int2ObjectArrayMap<ItemStack> staged = new Int2ObjectArrayMap<>();
+        private boolean open = true;
+
+        private ItemStack get(int slot) {
+            var stack = staged.get(slot);
+            return stack != null ? stack : stacks.get(slot);
+        }
+
+        @Override
+        @NotNull
+        public ItemStack insertItem(int slot, @NotNull ItemStack stack) {
+            checkOpen();
+            if (stack.isEmpty())
+                return ItemStack.EMPTY;
+
+            if (!isItemValid(slot, stack))
+                return stack;
+
+            validateSlotIndex(slot);
+
+            var existing = get(slot);
+            int limit = getInsertLimit(slot, existing, stack);
+
+            if (limit <= 0)
+                return stack;
+
+            int inserted = Math.min(limit, stack.getCount());
+            staged.put(slot, ItemHandlerHelper.copyStackWithSize(existing.isEmpty() ? stack : existing, existing.getCount() + inserted));
+            return inserted < stack.getCount() ? ItemHandlerHelper.copyStackWithSize(stack, stack.getCount() - inserted) : ItemStack.EMPTY;
+        }
+
+        @Override
+        @NotNull
+        public ItemStack extractItem(int slot, int amount) {
+            checkOpen();
+            if (amount == 0)
+                return ItemStack.EMPTY;
+
+            validateSlotIndex(slot);
+
+            var existing = get(slot);
+
+            if (existing.isEmpty())
+                return ItemStack.EMPTY;
+
+            int toExtract = Math.min(Math.min(amount, existing.getMaxStackSize()), existing.getCount());
+            staged.put(slot, toExtract == existing.getCount() ? ItemStack.EMPTY : ItemHandlerHelper.copyStackWithSize(existing, existing.getCount() - toExtract));
+            return ItemHandlerHelper.copyStackWithSize(existing, toExtract);
+        }
+
+        /**
+         * Stages the stack as {@link ItemStackHandler#insertItemStacked(ItemStack, boolean)} would insert it, visiting
+         * the same slots in the same order but seeing what is already staged.
+         */
+        private ItemStack insertStacked(ItemStack stack) {
+            checkOpen();
+            if (stack.isEmpty())
+                return stack;
+
+            if (!indexed) {
+                for (int slot = 0; slot < stacks.size() && !stack.isEmpty(); slot++) {
+                    if (ItemHandlerHelper.canItemStacksStack(get(slot), stack))
+                        stack = insertItem(slot, stack);
+                }
+                for (int slot = 0; slot < stacks.size() && !stack.isEmpty(); slot++) {
+                    if (get(slot).isEmpty())
+                        stack = insertItem(slot, stack);
+                }
+                return stack;
+            }
+
+            // The index only knows what is committed, so move the staged slots to where they would be
+            var matching = new BitSet();
+            var current = slotsByItem.get(stack.getItem());
+            if (current != null)
+                matching.or(current);
+            var empty = (BitSet)emptySlots.clone();
+            for (var entry : staged.int2ObjectEntrySet()) {
+                int slot = entry.getIntKey();
+                var existing = entry.getValue();
+                matching.clear(slot);
+                empty.clear(slot);
+                if (existing.isEmpty())
+                    empty.set(slot);
+                else if (existing.getItem() == stack.getItem())
+                    matching.set(slot);
+            }
+
+            for (int slot = matching.nextSetBit(0); slot >= 0 && !stack.isEmpty(); slot = matching.nextSetBit(slot + 1)) {
+                if (ItemHandlerHelper.canItemStacksStack(get(slot), stack))
+                    stack = insertItem(slot, stack);
+            }
+            for (int slot = empty.nextSetBit(0); slot >= 0 && !stack.isEmpty(); slot = empty.nextSetBit(slot + 1))
+                stack = insertItem(slot, stack);
+            return stack;
+        }
+
+        @Override
+        public void commit() {
+            checkOpen();
+            open = false;
+            for (var entry : staged.int2ObjectEntrySet()) {
+                stacks.set(entry.getIntKey(), entry.getValue());
+                contentsChanged(entry.getIntKey());
+            }
+            staged.clear();
+        }
+
+        @Override
+        public void abort() {
+            staged.clear();
+        }
+
+        @Override
+        public void close() {
+            open = false;
+            staged.clear();
+        }
+
+        private void checkOpen() {
+            if (!open)
+                throw new IllegalStateException("Transaction is already closed");
+        }
+    }
 }
@@ -13,6 +13,8 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.DispenserBlockEntity;
 import net.minecraft.world.level.block.entity.HopperBlockEntity;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.common.util.NonNullConsumer;
 import net.minecraft.core.Direction;
 import net.minecraft.core.BlockPos;
 import net.minecraft.util.Mth;
@@ -23,6 +25,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.WeakReference;
 import java.util.Optional;
 
 public class VanillaInventoryCodeHooks
@@ -34,38 +37,97 @@ public class VanillaInventoryCodeHooks
     @Nullable
     public static Boolean extractHook(Level level, Hopper dest)
     {
+        if (dest instanceof HopperBlockEntity hopper)
+        {
+            Neighbor source = hopper.getForgeHopperState().above;
+            IItemHandler handler = source.get(level, hopper.getBlockPos(), Direction.UP);
+            if (handler == null)
+                return null;
+            if (source.sleeping)
+                return false;
+
+            Transfer result = extract(handler, dest);
+            if (result == Transfer.NOTHING)
+                source.sleep(handler);
+            return result == Transfer.MOVED;
+        }
+
         return getItemHandler(level, dest, Direction.UP)
-                .map(itemHandlerResult -> {
-                    IItemHandler handler = itemHandlerResult.getKey();
+                .map(itemHandlerResult -> extract(itemHandlerResult.getKey(), dest) == Transfer.MOVED)
+                .orElse(null); // TODO bad null
+    }
 
-                    for (int i = 0; i < handler.getSlots(); i++)
+    private static Transfer extract(IItemHandler handler, Hopper dest)
+    {
+        if (handler.supportsTransactions())
+        {
+            try (IItemHandlerTransaction transaction = handler.openTransaction())
+            {
+                return extract(transaction, handler.getSlots(), dest);
+            }
+        }
+
+        Transfer ret = Transfer.NOTHING;
+        for (int i = 0; i < handler.getSlots(); i++)
+        {
+            ItemStack extractItem = handler.extractItem(i, 1, true);
+            if (!extractItem.isEmpty())
+            {
+                ret = Transfer.BLOCKED;
+                for (int j = 0; j < dest.getContainerSize(); j++)
+                {
+                    ItemStack destStack = dest.getItem(j);
+                    if (dest.canPlaceItem(j, extractItem) && (destStack.isEmpty() || destStack.getCount() < destStack.getMaxStackSize() && destStack.getCount() < dest.getMaxStackSize() && ItemHandlerHelper.canItemStacksStack(extractItem, destStack)))
                     {
-                        ItemStack extractItem = handler.extractItem(i, 1, true);
-                        if (!extractItem.isEmpty())
+                        extractItem = handler.extractItem(i, 1, false);
+                        if (destStack.isEmpty())
+                            dest.setItem(j, extractItem);
+                        else
                         {
-                            for (int j = 0; j < dest.getContainerSize(); j++)
-                            {
-                                ItemStack destStack = dest.getItem(j);
-                                if (dest.canPlaceItem(j, extractItem) && (destStack.isEmpty() || destStack.getCount() < destStack.getMaxStackSize() && destStack.getCount() < dest.getMaxStackSize() && ItemHandlerHelper.canItemStacksStack(extractItem, destStack)))
-                                {
-                                    extractItem = handler.extractItem(i, 1, false);
-                                    if (destStack.isEmpty())
-                                        dest.setItem(j, extractItem);
-                                    else
-                                    {
-                                        destStack.grow(1);
-                                        dest.setItem(j, destStack);
-                                    }
-                                    dest.setChanged();
-                                    return true;
-                                }
-                            }
+                            destStack.grow(1);
+                            dest.setItem(j, destStack);
                         }
+                        dest.setChanged();
+                        return Transfer.MOVED;
                     }
+                }
+            }
+        }
 
-                    return false;
-                })
-                .orElse(null); // TODO bad null
+        return ret;
+    }
+
+    private static Transfer extract(IItemHandlerTransaction transaction, int slots, Hopper dest)
+    {
+        Transfer ret = Transfer.NOTHING;
+        for (int i = 0; i < slots; i++)
+        {
+            ItemStack extractItem = transaction.extractItem(i, 1);
+            if (!extractItem.isEmpty())
+            {
+                ret = Transfer.BLOCKED;
+                for (int j = 0; j < dest.getContainerSize(); j++)
+                {
+                    ItemStack destStack = dest.getItem(j);
+                    if (dest.canPlaceItem(j, extractItem) && (destStack.isEmpty() || destStack.getCount() < destStack.getMaxStackSize() && destStack.getCount() < dest.getMaxStackSize() && ItemHandlerHelper.canItemStacksStack(extractItem, destStack)))
+                    {
+                        transaction.commit();
+                        if (destStack.isEmpty())
+                            dest.setItem(j, extractItem);
+                        else
+                        {
+                            destStack.grow(1);
+                            dest.setItem(j, destStack);
+                        }
+                        dest.setChanged();
+                        return Transfer.MOVED;
+                    }
+                }
+                transaction.abort();
+            }
+        }
+
+        return ret;
     }
 
     /**
@@ -104,41 +166,47 @@ public class VanillaInventoryCodeHooks
     public static boolean insertHook(HopperBlockEntity hopper)
     {
         Direction hopperFacing = hopper.getBlockState().getValue(HopperBlock.FACING);
-        return getItemHandler(hopper.getLevel(), hopper, hopperFacing)
-                .map(destinationResult -> {
-                    IItemHandler itemHandler = destinationResult.getKey();
-                    Object destination = destinationResult.getValue();
-                    if (isFull(itemHandler))
+        Neighbor target = hopper.getForgeHopperState().facing;
+        IItemHandler itemHandler = target.get(hopper.getLevel(), hopper.getBlockPos(), hopperFacing);
+        if (itemHandler == null || target.sleeping)
+        {
+            return false;
+        }
+        else if (isFull(itemHandler))
+        {
+            target.sleep(itemHandler);
+            return false;
+        }
+        else
+        {
+            Object destination = target.blockEntity;
+            for (int i = 0; i < hopper.getContainerSize(); ++i)
+            {
+                if (!hopper.getItem(i).isEmpty())
+                {
+                    ItemStack originalSlotContents = hopper.getItem(i).copy();
+                    ItemStack insertStack = hopper.removeItem(i, 1);
+                    ItemStack remainder = putStackInInventoryAllSlots(hopper, destination, itemHandler, insertStack);
+
+                    if (remainder.isEmpty())
                     {
-                        return false;
+                        return true;
                     }
-                    else
-                    {
-                        for (int i = 0; i < hopper.getContainerSize(); ++i)
-                        {
-                            if (!hopper.getItem(i).isEmpty())
-                            {
-                                ItemStack originalSlotContents = hopper.getItem(i).copy();
-                                ItemStack insertStack = hopper.removeItem(i, 1);
-                                ItemStack remainder = putStackInInventoryAllSlots(hopper, destination, itemHandler, insertStack);
-
-                                if (remainder.isEmpty())
-                                {
-                                    return true;
-                                }
-
-                                hopper.setItem(i, originalSlotContents);
-                            }
-                        }
 
-                        return false;
-                    }
-                })
-                .orElse(false);
+                    hopper.setItem(i, originalSlotContents);
+                }
+            }
+
+            return false;
+        }
     }
 
     private static ItemStack putStackInInventoryAllSlots(BlockEntity source, Object destination, IItemHandler destInventory, ItemStack stack)
     {
+        if (destInventory.supportsTransactions())
+        {
+            return insertStack(source, destination, destInventory, stack);
+        }
         for (int slot = 0; slot < destInventory.getSlots() && !stack.isEmpty(); slot++)
         {
             stack = insertStack(source, destination, destInventory, stack, slot);
@@ -146,6 +214,30 @@ public class VanillaInventoryCodeHooks
         return stack;
     }
 
+    /**
+     * Same as inserting into each slot with {@link #insertStack(BlockEntity, Object, IItemHandler, ItemStack, int)},
+     * using a transaction instead of simulating each insertion first.
+     */
+    private static ItemStack insertStack(BlockEntity source, Object destination, IItemHandler destInventory, ItemStack stack)
+    {
+        try (IItemHandlerTransaction transaction = destInventory.openTransaction())
+        {
+            for (int slot = 0; slot < destInventory.getSlots() && !stack.isEmpty(); slot++)
+            {
+                if (transaction.insertItem(slot, stack).isEmpty())
+                {
+                    boolean inventoryWasEmpty = isEmpty(destInventory);
+                    transaction.commit();
+                    if (inventoryWasEmpty)
+                        updateCooldown(source, destination);
+                    return ItemStack.EMPTY;
+                }
+                transaction.abort();
+            }
+        }
+        return stack;
+    }
+
     /**
      * Copied from TileEntityHopper#insertStack and added capability support
      */
@@ -171,29 +263,34 @@ public class VanillaInventoryCodeHooks
                 insertedItem = originalSize < stack.getCount();
             }
 
-            if (insertedItem)
+            if (insertedItem && inventoryWasEmpty)
             {
-                if (inventoryWasEmpty && destination instanceof HopperBlockEntity)
-                {
-                    HopperBlockEntity destinationHopper = (HopperBlockEntity)destination;
+                updateCooldown(source, destination);
+            }
+        }
 
-                    if (!destinationHopper.isOnCustomCooldown())
+        return stack;
+    }
+
+    private static void updateCooldown(BlockEntity source, Object destination)
+    {
+        if (destination instanceof HopperBlockEntity)
+        {
+            HopperBlockEntity destinationHopper = (HopperBlockEntity)destination;
+
+            if (!destinationHopper.isOnCustomCooldown())
+            {
+                int k = 0;
+                if (source instanceof HopperBlockEntity)
+                {
+                    if (destinationHopper.getLastUpdateTime() >= ((HopperBlockEntity) source).getLastUpdateTime())
                     {
-                        int k = 0;
-                        if (source instanceof HopperBlockEntity)
-                        {
-                            if (destinationHopper.getLastUpdateTime() >= ((HopperBlockEntity) source).getLastUpdateTime())
-                            {
-                                k = 1;
-                            }
-                        }
-                        destinationHopper.setCooldown(8 - k);
+                        k = 1;
                     }
                 }
+                destinationHopper.setCooldown(8 - k);
             }
         }
-
-        return stack;
     }
 
     private static Optional<Pair<IItemHandler, Object>> getItemHandler(Level level, Hopper hopper, Direction hopperFacing)
@@ -206,28 +303,12 @@ public class VanillaInventoryCodeHooks
 
     private static boolean isFull(IItemHandler itemHandler)
     {
-        for (int slot = 0; slot < itemHandler.getSlots(); slot++)
-        {
-            ItemStack stackInSlot = itemHandler.getStackInSlot(slot);
-            if (stackInSlot.isEmpty() || stackInSlot.getCount() < itemHandler.getSlotLimit(slot))
-            {
-                return false;
-            }
-        }
-        return true;
+        return itemHandler.visitSlots((slot, stackInSlot) -> !stackInSlot.isEmpty() && stackInSlot.getCount() >= itemHandler.getSlotLimit(slot));
     }
 
     private static boolean isEmpty(IItemHandler itemHandler)
     {
-        for (int slot = 0; slot < itemHandler.getSlots(); slot++)
-        {
-            ItemStack stackInSlot = itemHandler.getStackInSlot(slot);
-            if (stackInSlot.getCount() > 0)
-            {
-                return false;
-            }
-        }
-        return true;
+        return itemHandler.visitSlots((slot, stackInSlot) -> stackInSlot.getCount() <= 0);
     }
 
     public static Optional<Pair<IItemHandler, Object>> getItemHandler(Level worldIn, double x, double y, double z, final Direction side)
@@ -250,4 +331,117 @@ public class VanillaInventoryCodeHooks
 
         return Optional.empty();
     }
+
+    private enum Transfer
+    {
+        /** An item was moved */
+        MOVED,
+        /** The source had something to extract, but none of it fit */
+        BLOCKED,
+        /** The source had nothing to extract */
+        NOTHING
+    }
+
+    /**
+     * Per hopper state, kept by each {@link HopperBlockEntity}, so that it doesn't have to look up the item handlers
+     * of its neighbors every tick, and can stop looking at a neighbor that has nothing to give or no room to take
+     * until it tells us it changed through {@link IItemHandler#onNextChange(Runnable)}.
+     */
+    public static final class HopperState
+    {
+        private final Neighbor above = new Neighbor();
+        private final Neighbor facing = new Neighbor();
+    }
+
+    private static final class Neighbor
+    {
+        // Everything we register with the neighbor only holds us weakly, so it can't keep a removed hopper alive
+        private final WeakReference<Neighbor> self = new WeakReference<>(this);
+        private final NonNullConsumer<LazyOptional<IItemHandler>> invalidator = invalidated -> {
+            Neighbor neighbor = self.get();
+            if (neighbor != null && neighbor.capability == invalidated)
+                neighbor.clear();
+        };
+        @Nullable
+        private Direction direction;
+        @Nullable
+        private BlockEntity blockEntity;
+        private LazyOptional<IItemHandler> capability = LazyOptional.empty();
+        // The handler holding our wake up listener, until it runs. The listener runs on whichever thread changed the handler.
+        @Nullable
+        private volatile IItemHandler waitingOn;
+        private volatile boolean sleeping;
+
+        @Nullable
+        private IItemHandler get(Level level, BlockPos hopperPos, Direction direction)
+        {
+            if (this.blockEntity != null && this.direction == direction && !this.blockEntity.isRemoved())
+            {
+                IItemHandler handler = this.capability.orElse(null);
+                if (handler != null)
+                    return handler;
+            }
+            clear();
+
+            BlockPos pos = hopperPos.relative(direction);
+            if (!level.getBlockState(pos).hasBlockEntity())
+                return null;
+            BlockEntity blockEntity = level.getBlockEntity(pos);
+            if (blockEntity == null)
+                return null;
+            LazyOptional<IItemHandler> capability = blockEntity.getCapability(ForgeCapabilities.ITEM_HANDLER, direction.getOpposite());
+            IItemHandler handler = capability.orElse(null);
+            if (handler == null)
+                return null;
+
+            this.direction = direction;
+            this.blockEntity = blockEntity;
+            this.capability = capability;
+            capability.addListener(this.invalidator);
+            return handler;
+        }
+
+        private void sleep(IItemHandler handler)
+        {
+            this.sleeping = true;
+            // Our listener from an earlier sleep hasn't run yet, so it will still wake us
+            if (this.waitingOn == handler)
+                return;
+
+            this.waitingOn = handler;
+            if (!handler.onNextChange(new Waker(this.self, handler)))
+            {
+                this.waitingOn = null;
+                this.sleeping = false;
+            }
+        }
+
+        private void wake(IItemHandler handler)
+        {
+            // Forget the listener before waking, so a sleep in between can't count on one that already ran
+            if (this.waitingOn == handler)
+                this.waitingOn = null;
+            this.sleeping = false;
+        }
+
+        private void clear()
+        {
+            this.capability.removeListener(this.invalidator);
+            this.direction = null;
+            this.blockEntity = null;
+            this.capability = LazyOptional.empty();
+            this.sleeping = false;
+        }
+    }
+
+    private record Waker(WeakReference<Neighbor> neighbor, IItemHandler handler) implements Runnable
+    {
+        @Override
+        public void run()
+        {
+            Neighbor neighbor = this.neighbor.get();
+            if (neighbor != null)
+                neighbor.wake(this.handler);
+        }
+    }
 }
@@ -33,17 +33,21 @@ public class CombinedInvWrapper implements IItemHandlerModifiable
     // returns the handler index for the slot
     protected int getIndexForSlot(int slot)
     {
-        if (slot < 0)
+        if (slot < 0 || slot >= slotCount)
             return -1;
 
-        for (int i = 0; i < baseIndex.length; i++)
+        // the first handler whose end is past the slot, handlers without slots share their end with the one before
+        int low = 0;
+        int high = baseIndex.length - 1;
+        while (low < high)
         {
-            if (slot - baseIndex[i] < 0)
-            {
-                return i;
-            }
+            int mid = (low + high) >>> 1;
+            if (baseIndex[mid] > slot)
+                high = mid;
+            else
+                low = mid + 1;
         }
-        return -1;
+        return low;
     }
 
     protected IItemHandlerModifiable getHandlerFromIndex(int index)
@@ -109,6 +113,24 @@ public class CombinedInvWrapper implements IItemHandlerModifiable
         return handler.extractItem(slot, amount, simulate);
     }
 
+    @Override
+    public boolean visitSlots(@NotNull SlotVisitor visitor)
+    {
+        int base = 0;
+        for (int i = 0; i < itemHandler.length; i++)
+        {
+            int offset = base;
+            int size = baseIndex[i] - base;
+            // only the slots the handler had when we were created are ours to report
+            // the visitor may change any of our handlers meanwhile, which they must allow as visitSlots requires
+            boolean finished = itemHandler[i].visitSlots((slot, stack) -> slot >= size || visitor.visit(offset + slot, stack));
+            if (!finished)
+                return false;
+            base = baseIndex[i];
+        }
+        return true;
+    }
+
     @Override
     public int getSlotLimit(int slot)
     {
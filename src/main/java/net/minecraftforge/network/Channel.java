@@ -12,15 +12,18 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.Connection;
 import net.minecraft.network.ConnectionProtocol;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.RegistryFriendlyByteBuf;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.PacketFlow;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraftforge.event.network.CustomPayloadEvent;
 import net.minecraftforge.network.packets.LoginWrapper;
+import net.minecraftforge.server.ServerLifecycleHooks;
 
 public abstract class Channel<MSG> {
     private static final Logger LOGGER = LogManager.getLogger();
@@ -90,7 +93,27 @@ public abstract class Channel<MSG> {
      * @param <MSG> The type of the message
      */
     public void send(MSG msg, PacketDistributor.PacketTarget target) {
-        target.send(target.direction().buildPacket(this, msg));
+        if (target.encodeOnce() && target.direction() == NetworkDirection.PLAY_TO_CLIENT)
+            target.send(buildEncodedOnce(msg));
+        else
+            target.send(target.direction().buildPacket(this, msg));
+    }
+
+    /*
+     * Encodes the message now, into a buffer whose bytes every recipient's connection copies out with absolute indexes.
+     * As nobody moves its indexes or releases it, it's a plain heap buffer that is collected once the last connection
+     * has written it, so there is no reference counting for a dropped packet to get wrong.
+     */
+    private Packet<?> buildEncodedOnce(MSG msg) {
+        var server = ServerLifecycleHooks.getCurrentServer();
+        if (server == null)
+            return NetworkDirection.PLAY_TO_CLIENT.buildPacket(this, msg);
+
+        var buf = new RegistryFriendlyByteBuf(Unpooled.buffer(), server.registryAccess());
+        encode(buf, msg);
+        int start = buf.readerIndex();
+        int length = buf.readableBytes();
+        return NetworkProtocol.PLAY.buildPacket(PacketFlow.CLIENTBOUND, getName(msg), out -> out.writeBytes(buf, start, length));
     }
 
     public void reply(MSG msg, CustomPayloadEvent.Context context) {
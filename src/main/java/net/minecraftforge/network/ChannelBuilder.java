@@ -30,6 +30,7 @@ public class ChannelBuilder {
     private Map<AttributeKey<?>, Function<Connection, ?>> attributes = new HashMap<>();
     private Consumer<Connection> connectionHandler;
     private boolean registerSelf = true;
+    private int batchSize = 0;
 
     /**
      * Creates a new channel builder, The name of the channel must be unique.
@@ -169,6 +170,33 @@ public class ChannelBuilder {
         return this;
     }
 
+    /**
+     * Makes a {@link SimpleChannel} queue the messages it sends to each client during play, and send them together as
+     * a single payload at the end of the server tick instead of one packet per message. A connection's queue is sent
+     * early once it reaches 8 KiB.
+     * <p>
+     * Messages on this channel are still received in the order they were sent, but may now arrive after vanilla packets
+     * sent later in the same tick. Sends to more than one player at once are not batched.
+     */
+    public ChannelBuilder batched() {
+        return batched(8192);
+    }
+
+    /**
+     * Makes a {@link SimpleChannel} queue the messages it sends to each client during play, and send them together as
+     * a single payload at the end of the server tick instead of one packet per message.
+     *
+     * @param maxBytes The size at which a connection's queue is sent without waiting for the end of the tick
+     * @see #batched()
+     * @throws IllegalArgumentException if maxBytes is < 1
+     */
+    public ChannelBuilder batched(int maxBytes) {
+        if (maxBytes < 1)
+            throw new IllegalArgumentException("Invalid batch size: " + maxBytes);
+        this.batchSize = maxBytes;
+        return this;
+    }
+
     /**
      * Create the impl instance
      * @return the {@link NetworkInstance}
@@ -202,7 +230,7 @@ public class ChannelBuilder {
      * @return A new {@link SimpleChannel}
      */
     public SimpleChannel simpleChannel() {
-        return channel(SimpleChannel::new);
+        return channel(instance -> new SimpleChannel(instance, batchSize));
     }
 
     /**
@@ -18,9 +18,12 @@ import net.minecraftforge.network.packets.Acknowledge;
 import net.minecraftforge.network.packets.ChannelVersions;
 import net.minecraftforge.network.packets.LoginWrapper;
 import net.minecraftforge.network.packets.ModVersions;
+import net.minecraftforge.network.packets.RegistryCached;
 import net.minecraftforge.network.packets.RegistryList;
 import net.minecraftforge.network.packets.RegistryData;
+import net.minecraftforge.network.packets.ConfigCached;
 import net.minecraftforge.network.packets.ConfigData;
+import net.minecraftforge.network.packets.ConfigList;
 import net.minecraftforge.network.packets.MismatchData;
 import net.minecraftforge.network.tasks.ChannelVersionsTask;
 import net.minecraftforge.network.tasks.ModVersionsTask;
@@ -35,6 +38,8 @@ import org.apache.logging.log4j.MarkerManager;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -42,9 +47,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -57,9 +65,16 @@ import java.util.stream.Stream;
 public class ForgePacketHandler {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final Marker MARKER = MarkerManager.getMarker("FORGE_PACKET_HANDLER");
+    // Client only, registries received from previous connections by content hash, so joining again doesn't need to resend them
+    private static final Map<ResourceLocation, CachedRegistry> REGISTRY_CACHE = new ConcurrentHashMap<>();
+    // Client only, server configs received from previous connections by file name
+    private static final Map<String, CachedConfig> CONFIG_CACHE = new ConcurrentHashMap<>();
 
     private Set<ResourceLocation> registriesToReceive;
     private Map<ResourceLocation, ForgeRegistry.Snapshot> registrySnapshots = new HashMap<>();
+    private Object2LongMap<ResourceLocation> registryHashes = new Object2LongOpenHashMap<>();
+    private Set<ResourceLocation> clientCachedRegistries = Set.of();
+    private Set<String> clientCachedConfigs = Set.of();
     private int nextAckId = 0;
     private Int2ObjectMap<BiConsumer<Acknowledge, CustomPayloadEvent.Context>> pendingAcknowledgments = new Int2ObjectOpenHashMap<>();
 
@@ -72,6 +87,20 @@ public class ForgePacketHandler {
         return id;
     }
 
+    /**
+     * The registries the client told us it already has, in reply to the last {@link RegistryList}
+     */
+    public Set<ResourceLocation> getClientCachedRegistries() {
+        return this.clientCachedRegistries;
+    }
+
+    /**
+     * The configs the client told us it already has, in reply to the last {@link ConfigList}
+     */
+    public Set<String> getClientCachedConfigs() {
+        return this.clientCachedConfigs;
+    }
+
     void handleLoginWrapper(LoginWrapper msg, CustomPayloadEvent.Context ctx) {
         ForgeHooks.onCustomPayload(new CustomPayloadEvent(msg.name(), ForgePayload.create(msg.name(), msg.data()), ctx, -1));
     }
@@ -88,6 +117,16 @@ public class ForgePacketHandler {
         }
     }
 
+    void handleRegistryCached(RegistryCached msg, CustomPayloadEvent.Context ctx) {
+        this.clientCachedRegistries = Set.copyOf(msg.cached());
+        handleClientAck(new Acknowledge(msg.token()), ctx);
+    }
+
+    void handleConfigCached(ConfigCached msg, CustomPayloadEvent.Context ctx) {
+        this.clientCachedConfigs = Set.copyOf(msg.cached());
+        handleClientAck(new Acknowledge(msg.token()), ctx);
+    }
+
     void handleModVersions(ModVersions list, CustomPayloadEvent.Context ctx) {
         ctx.setPacketHandled(true);
         LOGGER.debug(MARKER, "Received {} connection with modlist [{}]", ctx.isClientSide() ? "server" : "client", list.mods().keySet().stream().sorted().collect(Collectors.joining(", ")));
@@ -162,11 +201,35 @@ public class ForgePacketHandler {
             return;
         }
 
-        NetworkInitialization.CONFIG.reply(new Acknowledge(list.token()), ctx);
-
         this.registriesToReceive = new HashSet<>(list.normal());
         this.registrySnapshots.clear();
+        this.registryHashes.clear();
+
+        // Hashes are only sent if the registries are, so there's nothing to look up otherwise
+        List<ResourceLocation> cached = new ArrayList<>();
+        for (int x = 0; x < list.hashes().size() && x < list.normal().size(); x++) {
+            var name = list.normal().get(x);
+            long hash = list.hashes().get(x);
+            this.registryHashes.put(name, hash);
+
+            var entry = REGISTRY_CACHE.get(name);
+            if (entry != null && entry.hash() == hash) {
+                this.registriesToReceive.remove(name);
+                this.registrySnapshots.put(name, entry.snapshot());
+                cached.add(name);
+            }
+        }
         LOGGER.debug(MARKER, "Expecting {} registries: {}", this.registriesToReceive.size(), this.registriesToReceive.stream().map(Object::toString).collect(Collectors.joining(", ")));
+        if (!cached.isEmpty())
+            LOGGER.debug(MARKER, "Using {} cached registries: {}", cached.size(), cached.stream().map(Object::toString).collect(Collectors.joining(", ")));
+
+        // If we had everything cached, no registry data will come so load now
+        if (!cached.isEmpty() && this.registriesToReceive.isEmpty() && !handleRegistryLoading(ctx)) {
+            LOGGER.error(MARKER, "Connection closed, not continuing handshake");
+            return;
+        }
+
+        NetworkInitialization.CONFIG.reply(new RegistryCached(list.token(), cached), ctx);
     }
 
     void handleRegistryData(RegistryData msg, CustomPayloadEvent.Context ctx) {
@@ -179,6 +242,8 @@ public class ForgePacketHandler {
             return;
         }
         this.registrySnapshots.put(msg.name(), msg.data());
+        if (this.registryHashes.containsKey(msg.name()))
+            REGISTRY_CACHE.put(msg.name(), new CachedRegistry(this.registryHashes.getLong(msg.name()), msg.data()));
 
         boolean continueHandshake = true;
         if (this.registriesToReceive.isEmpty())
@@ -248,14 +313,73 @@ public class ForgePacketHandler {
         return true;
     }
 
-    void handleConfigSync(ConfigData msg, CustomPayloadEvent.Context ctx) {
+    private record CachedRegistry(long hash, ForgeRegistry.Snapshot snapshot) {}
+
+    private record CachedConfig(long hash, byte[] data) {}
+
+    void handleConfigList(ConfigList msg, CustomPayloadEvent.Context ctx) {
         ctx.setPacketHandled(true);
-        LOGGER.debug(MARKER, "Received config sync from server for {}", msg.name());
 
+        List<String> cached = new ArrayList<>();
         if (!ctx.getConnection().isMemoryConnection()) {
-            var cfg = ConfigTracker.INSTANCE.fileMap().get(msg.name());
-            if (cfg != null)
-                cfg.acceptSyncedConfig(msg.data());
+            for (var entry : msg.hashes().entrySet()) {
+                var cfg = CONFIG_CACHE.get(entry.getKey());
+                if (cfg != null && cfg.hash() == entry.getValue()) {
+                    acceptSyncedConfig(entry.getKey(), cfg.data());
+                    cached.add(entry.getKey());
+                }
+            }
+        }
+        LOGGER.debug(MARKER, "Expecting {} configs, using {} cached", msg.hashes().size() - cached.size(), cached.size());
+
+        NetworkInitialization.CONFIG.reply(new ConfigCached(msg.token(), cached), ctx);
+    }
+
+    void handleConfigSync(ConfigData msg, CustomPayloadEvent.Context ctx) {
+        ctx.setPacketHandled(true);
+        if (ctx.getConnection().isMemoryConnection())
+            return;
+
+        for (var cfg : msg.configs()) {
+            LOGGER.debug(MARKER, "Received config sync from server for {}", cfg.name());
+            byte[] data;
+            try {
+                data = inflate(cfg.data(), cfg.length());
+            } catch (DataFormatException e) {
+                LOGGER.error(MARKER, "Failed to decompress config {} from server", cfg.name(), e);
+                ctx.getConnection().disconnect(Component.literal("Connection closed - Invalid config data received from server"));
+                return;
+            }
+
+            CONFIG_CACHE.put(cfg.name(), new CachedConfig(cfg.hash(), data));
+            acceptSyncedConfig(cfg.name(), data);
+        }
+    }
+
+    private static void acceptSyncedConfig(String name, byte[] data) {
+        var cfg = ConfigTracker.INSTANCE.fileMap().get(name);
+        if (cfg != null)
+            cfg.acceptSyncedConfig(data);
+    }
+
+    private static byte[] inflate(byte[] data, int length) throws DataFormatException {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            var ret = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int count = inflater.inflate(ret, read, length - read);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                read += count;
+            }
+
+            if (read != length || !inflater.finished())
+                throw new DataFormatException("Expected " + length + " bytes but got " + read);
+            return ret;
+        } finally {
+            inflater.end();
         }
     }
 }
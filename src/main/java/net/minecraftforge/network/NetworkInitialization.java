@@ -40,17 +40,20 @@ public final class NetworkInitialization {
     public static final SimpleChannel CONFIG = ChannelBuilder
         .named(HANDSHAKE_NAME)
         .optional()
-        .networkProtocolVersion(0)
+        .networkProtocolVersion(3)
         .simpleChannel()
             .configuration()
                 .serverbound()
                     .add(Acknowledge.class, Acknowledge.STREAM_CODEC, ctx(ForgePacketHandler::handleClientAck))
+                    .add(RegistryCached.class, RegistryCached.STREAM_CODEC, ctx(ForgePacketHandler::handleRegistryCached))
+                    .add(ConfigCached.class, ConfigCached.STREAM_CODEC, ctx(ForgePacketHandler::handleConfigCached))
                 .bidirectional()
                     .add(ModVersions.class, ModVersions.STREAM_CODEC, ctx(ForgePacketHandler::handleModVersions))
                     .add(ChannelVersions.class, ChannelVersions.STREAM_CODEC, ctx(ForgePacketHandler::handleChannelVersions))
                 .clientbound()
                     .add(RegistryList.class, RegistryList.STREAM_CODEC, ctx(ForgePacketHandler::handleRegistryList))
                     .add(RegistryData.class, RegistryData.STREAM_CODEC, ctx(ForgePacketHandler::handleRegistryData))
+                    .add(ConfigList.class, ConfigList.STREAM_CODEC, ctx(ForgePacketHandler::handleConfigList))
                     .add(ConfigData.class, ConfigData.STREAM_CODEC, ctx(ForgePacketHandler::handleConfigSync))
                     .add(MismatchData.class, MismatchData.STREAM_CODEC, ctx(ForgePacketHandler::handleModMismatchData))
             .play() // TODO: Move to it's own channel, so that we can keep the core handshake channel clean/simple and thus not need to bump the version ever As it is the one responsible for validating versions
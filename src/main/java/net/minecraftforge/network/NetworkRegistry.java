@@ -20,9 +20,13 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import io.netty.util.Attribute;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -43,6 +47,9 @@ public class NetworkRegistry {
 
     private static Map<ResourceLocation, NetworkInstance> instances = Collections.synchronizedMap(new HashMap<>());
     private static Map<ResourceLocation, NetworkInstance> byName = Collections.synchronizedMap(new HashMap<>());
+    // Published once registration is locked, so lookups from the netty threads don't contend on the maps above
+    @Nullable
+    private static volatile Snapshot snapshot;
 
     public static boolean acceptsVanillaClientConnections() {
         return listRejectedVanillaMods(n -> n.clientAcceptedVersions).isEmpty() && DataPackRegistriesHooks.getSyncedCustomRegistries().isEmpty();
@@ -54,12 +61,13 @@ public class NetworkRegistry {
 
     @Nullable
     public static NetworkInstance findTarget(ResourceLocation resourceLocation) {
-        return byName.get(resourceLocation);
+        var snapshot = NetworkRegistry.snapshot;
+        return snapshot != null ? snapshot.byName().get(resourceLocation) : byName.get(resourceLocation);
     }
 
     static Map<ResourceLocation, ServerStatusPing.ChannelData> buildChannelVersionsForListPing() {
         var ret = new HashMap<ResourceLocation, ServerStatusPing.ChannelData>();
-        for (var channel : instances.values()) {
+        for (var channel : instances()) {
             ret.put(channel.getChannelName(), channel.pingData);
         }
         return ret;
@@ -67,7 +75,7 @@ public class NetworkRegistry {
 
     static List<String> listRejectedVanillaMods(Function<NetworkInstance, VersionTest> testFunction) {
         var results = new ArrayList<String>();
-        for (var net : instances.values()) {
+        for (var net : instances()) {
             boolean test = testFunction.apply(net).accepts(VersionTest.Status.VANILLA, -1);
             LOGGER.debug(NETREGISTRY, "Channel '{}' : Vanilla acceptance test: {}", net.getChannelName(), test ? "ACCEPTED" : "REJECTED");
             if (!test)
@@ -89,7 +97,7 @@ public class NetworkRegistry {
 
         Set<ResourceLocation> missing = new HashSet<>();
         Map<ResourceLocation, NetworkMismatchData.Version> results = new HashMap<>();
-        for (var net : instances.values()) {
+        for (var net : instances()) {
             var name = net.getChannelName();
             VersionTest test = fromClient ? net.clientAcceptedVersions : net.serverAcceptedVersions;
 
@@ -125,7 +133,7 @@ public class NetworkRegistry {
         Set<ResourceLocation> handled = new HashSet<>();
         var rejected = new ArrayList<String>();
 
-        for (var net : instances.values()) {
+        for (var net : instances()) {
             var status = VersionTest.Status.MISSING;
             var version = 0;
             if (incoming.containsKey(net.getChannelName())) {
@@ -164,13 +172,39 @@ public class NetworkRegistry {
     static boolean lock = false;
     public static void lock() {
         lock = true;
+
+        NetworkInstance[] locked;
+        synchronized (instances) {
+            locked = instances.values().toArray(NetworkInstance[]::new);
+        }
+        Object2ObjectOpenHashMap<ResourceLocation, NetworkInstance> names;
+        synchronized (byName) {
+            names = new Object2ObjectOpenHashMap<>(byName);
+        }
+        snapshot = new Snapshot(names, List.of(locked), Object2IntMaps.unmodifiable(computeChannelVersions(List.of(locked))), List.copyOf(computeRegisterList(names.keySet())));
+    }
+
+    /**
+     * The channels and lookups that can no longer change once registration is {@link #lock() locked}.
+     * Never modified after construction, which is what makes reading it from any thread safe.
+     */
+    private record Snapshot(
+        Object2ObjectOpenHashMap<ResourceLocation, NetworkInstance> byName,
+        List<NetworkInstance> instances,
+        Object2IntMap<ResourceLocation> channelVersions,
+        List<ResourceLocation> registerList
+    ) {}
+
+    private static Collection<NetworkInstance> instances() {
+        var snapshot = NetworkRegistry.snapshot;
+        return snapshot != null ? snapshot.instances() : instances.values();
     }
 
     @SuppressWarnings("unchecked")
     public static void onConnectionStart(Connection connection) {
         ForgeEventFactory.onConnectionStart(connection);
         var channel = connection.channel();
-        for (var inst : instances.values()) {
+        for (var inst : instances()) {
             if (inst.attributes != null)
                 inst.attributes.forEach((k, v) -> ((Attribute<Object>)channel.attr(k)).compareAndSet(null, (Object)v.apply(connection)));
             if (inst.channelHandler != null)
@@ -178,17 +212,30 @@ public class NetworkRegistry {
         }
     }
 
+    /**
+     * @return The version of every channel, unmodifiable once registration is locked
+     */
     public static Map<ResourceLocation, Integer> buildChannelVersions() {
+        var snapshot = NetworkRegistry.snapshot;
+        return snapshot != null ? snapshot.channelVersions() : computeChannelVersions(instances.values());
+    }
+
+    private static Object2IntMap<ResourceLocation> computeChannelVersions(Collection<NetworkInstance> instances) {
         var ret = new Object2IntOpenHashMap<ResourceLocation>(instances.size());
-        for (var net : instances.values()) {
+        for (var net : instances) {
             ret.put(net.getChannelName(), net.getNetworkProtocolVersion());
         }
         return ret;
     }
 
     static List<ResourceLocation> buildRegisterList() {
-        var ret = new ArrayList<ResourceLocation>(byName.keySet().size());
-        for (var name : byName.keySet())
+        var snapshot = NetworkRegistry.snapshot;
+        return snapshot != null ? snapshot.registerList() : computeRegisterList(byName.keySet());
+    }
+
+    private static List<ResourceLocation> computeRegisterList(Collection<ResourceLocation> names) {
+        var ret = new ArrayList<ResourceLocation>(names.size());
+        for (var name : names)
             if (!"minecraft".equals(name.getNamespace()))
                 ret.add(name);
         return ret;
@@ -24,12 +24,16 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * Means to distribute packets in various ways
+ * <p>
+ * Distributors that {@linkplain #withEncodeOnce() encode once} serialize a message a single time and copy the resulting bytes
+ * for every recipient, instead of every recipient's connection encoding the message itself. All of the built in distributors
+ * that can send to more than one player do this.
  *
  * @see Channel#send(Object, PacketTarget)
  *
  * @param <T>
  */
-public record PacketDistributor<T>(BiFunction<PacketDistributor<T>, T, Consumer<Packet<?>>> functor, NetworkDirection<?> direction) {
+public record PacketDistributor<T>(BiFunction<PacketDistributor<T>, T, Consumer<Packet<?>>> functor, NetworkDirection<?> direction, boolean encodeOnce) {
     /**
      * Send to the player specified in the Supplier
      * <br/>
@@ -42,21 +46,21 @@ public record PacketDistributor<T>(BiFunction<PacketDistributor<T>, T, Consumer<
      * <br/>
      * {@link #with(T)} DimensionType
      */
-    public static final PacketDistributor<ResourceKey<Level>> DIMENSION = new PacketDistributor<>(PacketDistributor::playerListDimConsumer);
+    public static final PacketDistributor<ResourceKey<Level>> DIMENSION = new PacketDistributor<>(PacketDistributor::playerListDimConsumer, NetworkDirection.PLAY_TO_CLIENT, true);
 
     /**
      * Send to everyone near the {@link TargetPoint} specified in the Supplier
      * <br/>
      * {@link #with(T)} TargetPoint
      */
-    public static final PacketDistributor<TargetPoint> NEAR = new PacketDistributor<>(PacketDistributor::playerListPointConsumer);
+    public static final PacketDistributor<TargetPoint> NEAR = new PacketDistributor<>(PacketDistributor::playerListPointConsumer, NetworkDirection.PLAY_TO_CLIENT, true);
 
     /**
      * Send to everyone
      * <br/>
      * {@link #noArg()}
      */
-    public static final PacketDistributor<Void> ALL = new PacketDistributor<>(PacketDistributor::playerListAll);
+    public static final PacketDistributor<Void> ALL = new PacketDistributor<>(PacketDistributor::playerListAll, NetworkDirection.PLAY_TO_CLIENT, true);
 
     /**
      * Send to the server (CLIENT to SERVER)
@@ -70,28 +74,28 @@ public record PacketDistributor<T>(BiFunction<PacketDistributor<T>, T, Consumer<
      * <br/>
      * {@link #with(T)} Entity
      */
-    public static final PacketDistributor<Entity> TRACKING_ENTITY = new PacketDistributor<>(PacketDistributor::trackingEntity);
+    public static final PacketDistributor<Entity> TRACKING_ENTITY = new PacketDistributor<>(PacketDistributor::trackingEntity, NetworkDirection.PLAY_TO_CLIENT, true);
 
     /**
      * Send to all tracking the Entity and Player in the Supplier
      * <br/>
      * {@link #with(T)} Entity
      */
-    public static final PacketDistributor<Entity> TRACKING_ENTITY_AND_SELF = new PacketDistributor<>(PacketDistributor::trackingEntityAndSelf);
+    public static final PacketDistributor<Entity> TRACKING_ENTITY_AND_SELF = new PacketDistributor<>(PacketDistributor::trackingEntityAndSelf, NetworkDirection.PLAY_TO_CLIENT, true);
 
     /**
      * Send to all tracking the Chunk in the Supplier
      * <br/>
      * {@link #with(T)} Chunk
      */
-    public static final PacketDistributor<LevelChunk> TRACKING_CHUNK = new PacketDistributor<>(PacketDistributor::trackingChunk);
+    public static final PacketDistributor<LevelChunk> TRACKING_CHUNK = new PacketDistributor<>(PacketDistributor::trackingChunk, NetworkDirection.PLAY_TO_CLIENT, true);
 
     /**
      * Send to the supplied list of NetworkManager instances in the Supplier
      * <br/>
      * {@link #with(T)} List of NetworkManager
      */
-    public static final PacketDistributor<List<Connection>> NMLIST = new PacketDistributor<>(PacketDistributor::networkManagerList);
+    public static final PacketDistributor<List<Connection>> NMLIST = new PacketDistributor<>(PacketDistributor::networkManagerList, NetworkDirection.PLAY_TO_CLIENT, true);
 
     public static record TargetPoint(@Nullable ServerPlayer excluded, double x, double y, double z, double r2, ResourceKey<Level> dim) {
         /**
@@ -107,7 +111,11 @@ public record PacketDistributor<T>(BiFunction<PacketDistributor<T>, T, Consumer<
      *
      * @see Channel#send(Object, PacketTarget)
      */
-    public record PacketTarget(Consumer<Packet<?>> packetConsumer, NetworkDirection<?> direction) {
+    public record PacketTarget(Consumer<Packet<?>> packetConsumer, NetworkDirection<?> direction, boolean encodeOnce) {
+        public PacketTarget(Consumer<Packet<?>> packetConsumer, NetworkDirection<?> direction) {
+            this(packetConsumer, direction, false);
+        }
+
         public void send(Packet<?> packet) {
             packetConsumer.accept(packet);
         }
@@ -117,13 +125,25 @@ public record PacketDistributor<T>(BiFunction<PacketDistributor<T>, T, Consumer<
         this(functor, NetworkDirection.PLAY_TO_CLIENT);
     }
 
+    public PacketDistributor(BiFunction<PacketDistributor<T>, T, Consumer<Packet<?>>> functor, NetworkDirection<?> direction) {
+        this(functor, direction, false);
+    }
+
+    /**
+     * Returns a copy of this distributor that encodes messages once for all recipients. Only useful for distributors
+     * that send to multiple connections, and only applies to messages sent to clients during play.
+     */
+    public PacketDistributor<T> withEncodeOnce() {
+        return new PacketDistributor<>(this.functor(), this.direction(), true);
+    }
+
     /**
      * Apply the supplied value to the specific distributor to generate an instance for sending packets to.
      * @param input The input to apply
      * @return A curried instance
      */
     public PacketTarget with(T input) {
-        return new PacketTarget(functor.apply(this, input), this.direction());
+        return new PacketTarget(functor.apply(this, input), this.direction(), this.encodeOnce());
     }
 
     /**
@@ -134,11 +154,11 @@ public record PacketDistributor<T>(BiFunction<PacketDistributor<T>, T, Consumer<
      * @return A curried instance
      */
     public PacketTarget noArg() {
-        return new PacketTarget(functor.apply(this, null), this.direction());
+        return new PacketTarget(functor.apply(this, null), this.direction(), this.encodeOnce());
     }
 
     private Consumer<Packet<?>> playerConsumer(ServerPlayer player) {
-        return p -> player.connection.getConnection().send(p);
+        return new PlayerSender(player);
     }
 
     private Consumer<Packet<?>> playerListDimConsumer(ResourceKey<Level> dimension) {
@@ -177,4 +197,14 @@ public record PacketDistributor<T>(BiFunction<PacketDistributor<T>, T, Consumer<
     private MinecraftServer getServer() {
         return ServerLifecycleHooks.getCurrentServer();
     }
+
+    /**
+     * Sends to a single player, kept as a type so that channels can tell which connection a target is for.
+     */
+    record PlayerSender(ServerPlayer player) implements Consumer<Packet<?>> {
+        @Override
+        public void accept(Packet<?> packet) {
+            player.connection.getConnection().send(packet);
+        }
+    }
 }
@@ -79,20 +79,17 @@ public record ServerStatusPing(
         int fmlNetworkVer,
         boolean truncated
 ) {
-    private static final Codec<ByteBuf> BYTE_BUF_CODEC = Codec.STRING
-            .xmap(ServerStatusPing::decodeOptimized, ServerStatusPing::encodeOptimized);
-
     public static final Codec<ServerStatusPing> CODEC = RecordCodecBuilder.create(in -> in.group(
             Codec.INT.fieldOf("fmlNetworkVersion").forGetter(ServerStatusPing::getFMLNetworkVersion),
 
-            ServerStatusPing.BYTE_BUF_CODEC.optionalFieldOf("d").forGetter(ping -> Optional.of(ping.toBuf())),
+            Codec.STRING.optionalFieldOf("d").forGetter(ping -> Optional.of(ping.encoded())),
 
             ChannelData.CODEC.listOf().optionalFieldOf("channels").forGetter(ping -> Optional.of(List.of())),
             ModInfo.CODEC.listOf().optionalFieldOf("mods").forGetter(ping -> Optional.of(List.of())),
 
             // legacy versions see truncated lists, modern versions ignore this truncated flag (binary data has its own)
             Codec.BOOL.optionalFieldOf("truncated").forGetter(ping -> Optional.of(ping.isTruncated()))
-    ).apply(in, (fmlVer, buf, channels, mods, truncated) -> buf.map(byteBuf -> deserializeOptimized(fmlVer, byteBuf))
+    ).apply(in, (fmlVer, data, channels, mods, truncated) -> data.map(s -> deserializeOptimized(fmlVer, decodeOptimized(s)))
             .orElseGet(() -> new ServerStatusPing(
                     channels.orElseGet(List::of).stream().collect(Collectors.toMap(ChannelData::res, Function.identity())),
                     mods.orElseGet(List::of).stream().collect(Collectors.toMap(ModInfo::modId, ModInfo::modmarker)),
@@ -113,6 +110,35 @@ public record ServerStatusPing(
         );
     }
 
+    // Neither the channels nor the mods can change once the NetworkRegistry is locked, so the ping for this side,
+    // and its encoded form, are built once and reused for every status request after that.
+    private static volatile ServerStatusPing local;
+    private static volatile String localEncoded;
+
+    /**
+     * Returns the ping data describing this side. Built once after networking is locked, before that a new
+     * instance is built for every call as channels may still be registered.
+     */
+    public static ServerStatusPing current() {
+        if (!NetworkRegistry.lock)
+            return new ServerStatusPing();
+
+        var ret = local;
+        if (ret == null)
+            local = ret = new ServerStatusPing();
+        return ret;
+    }
+
+    private String encoded() {
+        if (this != local)
+            return encodeOptimized(toBuf());
+
+        var ret = localEncoded;
+        if (ret == null)
+            localEncoded = ret = encodeOptimized(toBuf());
+        return ret;
+    }
+
     @Override // Don't compare the truncated flag as it is irrelevant
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -5,13 +5,17 @@
 
 package net.minecraftforge.network;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.util.AttributeKey;
 import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import net.minecraft.network.Connection;
+import net.minecraft.network.ConnectionProtocol;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.RegistryFriendlyByteBuf;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.PacketFlow;
@@ -24,6 +28,7 @@ import net.minecraftforge.network.simple.SimpleBuildable;
 import net.minecraftforge.network.simple.SimpleConnection;
 import net.minecraftforge.network.simple.SimpleFlow;
 import net.minecraftforge.network.simple.SimpleProtocol;
+import net.minecraftforge.server.ServerLifecycleHooks;
 import org.apache.commons.lang3.function.TriConsumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -32,6 +37,9 @@ import org.apache.logging.log4j.MarkerManager;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -42,8 +50,16 @@ public class SimpleChannel extends Channel<Object> implements SimpleConnection<O
 
     @ApiStatus.Internal
     SimpleChannel(NetworkInstance instance) {
+        this(instance, 0);
+    }
+
+    @ApiStatus.Internal
+    SimpleChannel(NetworkInstance instance, int batchSize) {
         super(instance);
+        this.batchSize = batchSize;
         instance.addListener(this::networkEventListener);
+        if (batchSize > 0)
+            BATCHED.add(this);
     }
 
     @Override
@@ -132,6 +148,7 @@ public class SimpleChannel extends Channel<Object> implements SimpleConnection<O
     public SimpleChannel build() {
         checkBuilt();
         this.built = true;
+        compile();
         return this;
     }
 
@@ -490,9 +507,21 @@ public class SimpleChannel extends Channel<Object> implements SimpleConnection<O
      *                           INTERNAL BELOW THIS
      * ===================================================================================
      */
+    // Never a valid discriminator, marks a payload holding several length prefixed messages
+    private static final int BATCH_INDEX = -1;
+    private static final Set<SimpleChannel> BATCHED = ConcurrentHashMap.newKeySet();
+
+    private final int batchSize;
+    private final Map<Connection, RegistryFriendlyByteBuf> batches = new ConcurrentHashMap<>();
     protected int lastIndex = 0;
     protected Int2ObjectMap<Message<?, ?>> byId = new Int2ObjectArrayMap<>();
     protected Object2ObjectMap<Class<?>, Message<?, ?>> byType = new Object2ObjectArrayMap<>();
+    // Compiled by build(), after which no messages can be added. Null until then, or if the discriminators are too sparse for an array.
+    // Channels are built before NetworkRegistry is locked, which is what publishes these to the netty threads.
+    @Nullable
+    private Message<?, ?>[] dispatch;
+    @Nullable
+    private ClassValue<Message<?, ?>> byClass;
 
     protected record Message<MSG, BUF extends FriendlyByteBuf>(
         int index,
@@ -504,17 +533,40 @@ public class SimpleChannel extends Channel<Object> implements SimpleConnection<O
         BiConsumer<MSG, CustomPayloadEvent.Context> consumer
     ){ };
 
+    private void compile() {
+        int max = -1;
+        for (var id : byId.keySet())
+            max = Math.max(max, id);
+
+        if (max < byId.size() * 2 + 64) {
+            var table = new Message<?, ?>[max + 1];
+            for (var msg : byId.values())
+                table[msg.index()] = msg;
+            this.dispatch = table;
+        }
+
+        var types = this.byType;
+        this.byClass = new ClassValue<>() {
+            @Override
+            protected Message<?, ?> computeValue(Class<?> type) {
+                return types.get(type);
+            }
+        };
+    }
+
     private Message<Object, FriendlyByteBuf> get(int id) {
+        var table = this.dispatch;
         @SuppressWarnings("unchecked")
-        var msg = (Message<Object, FriendlyByteBuf>)byId.get(id);
+        var msg = (Message<Object, FriendlyByteBuf>)(table == null ? byId.get(id) : id >= 0 && id < table.length ? table[id] : null);
         if (msg == null)
             error("Received invalid discriminator " + id + " on channel " + getName());
         return msg;
     }
 
     private Message<Object, FriendlyByteBuf> get(Object type) {
+        var types = this.byClass;
         @SuppressWarnings("unchecked")
-        var msg = (Message<Object, FriendlyByteBuf>)byType.get(type.getClass());
+        var msg = (Message<Object, FriendlyByteBuf>)(types == null ? byType.get(type.getClass()) : types.get(type.getClass()));
         if (msg == null)
             error("Attemped to send invalid message " + type + " on channel " + getName());
         return msg;
@@ -536,16 +588,138 @@ public class SimpleChannel extends Channel<Object> implements SimpleConnection<O
             return;
         }
 
-        var msg = get(data.readVarInt());
-        super.validate(msg.type.getName(), event.getSource().getConnection(), msg.protocol(), msg.direction(), false);
+        int index = data.readVarInt();
+        if (index != BATCH_INDEX) {
+            handle(index, data, event);
+            return;
+        }
+
+        // Limit the buffer to each message in turn, so a decoder can't read into the next one
+        int end = data.writerIndex();
+        while (data.isReadable()) {
+            int length = data.readInt();
+            int next = data.readerIndex() + length;
+            if (length < 0 || next > end)
+                error("Received malformed batch on channel " + getName());
+
+            data.writerIndex(next);
+            handle(data.readVarInt(), data, event);
+            data.writerIndex(end);
+            data.readerIndex(next);
+        }
+    }
+
+    private void handle(int index, FriendlyByteBuf data, CustomPayloadEvent event) {
+        var msg = get(index);
+        validate(msg, event.getSource().getConnection(), false);
         var pkt = msg.decoder().apply(data);
         msg.consumer().accept(pkt, event.getSource());
     }
 
+    @Override
+    public void send(Object message, Connection connection) {
+        if (batchSize <= 0 || connection.getProtocol() != ConnectionProtocol.PLAY || connection.getSending() != PacketFlow.CLIENTBOUND) {
+            super.send(message, connection);
+            return;
+        }
+
+        var server = ServerLifecycleHooks.getCurrentServer();
+        if (server == null) {
+            super.send(message, connection);
+            return;
+        }
+
+        validate(get(message), connection, true);
+        batches.compute(connection, (con, batch) -> {
+            if (batch == null)
+                batch = new RegistryFriendlyByteBuf(Unpooled.buffer(), server.registryAccess());
+
+            int start = batch.writerIndex();
+            batch.writeInt(0);
+            encode(batch, message);
+            batch.setInt(start, batch.writerIndex() - start - 4);
+            if (batch.writerIndex() < batchSize)
+                return batch;
+
+            // Don't let one large message take everything queued before it over the limit
+            if (start > 0 && batch.writerIndex() > batchSize) {
+                sendBatch(con, batch, 0, start);
+                sendBatch(con, batch, start, batch.writerIndex() - start);
+            } else {
+                sendBatch(con, batch, 0, batch.writerIndex());
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void send(Object message, PacketDistributor.PacketTarget target) {
+        if (batchSize > 0 && target.direction() == NetworkDirection.PLAY_TO_CLIENT) {
+            if (target.packetConsumer() instanceof PacketDistributor.PlayerSender sender) {
+                send(message, sender.player().connection.getConnection());
+                return;
+            }
+
+            // We can't queue for connections we don't know, so get everything already queued out first to keep our order.
+            flush();
+        }
+        super.send(message, target);
+    }
+
+    /**
+     * Sends everything queued by batched channels, called at the end of every server tick.
+     */
+    @ApiStatus.Internal
+    public static void flushBatches() {
+        for (var channel : BATCHED)
+            channel.flush();
+    }
+
+    /**
+     * Sends everything batched channels have queued for one connection, called before it sends a packet that ends
+     * its current protocol, as our batches can only be sent in {@link ConnectionProtocol#PLAY}.
+     */
+    @ApiStatus.Internal
+    public static void flushBatches(Connection connection) {
+        for (var channel : BATCHED)
+            channel.flush(connection);
+    }
+
+    private void flush() {
+        if (batches.isEmpty())
+            return;
+
+        for (var con : batches.keySet())
+            flush(con);
+    }
+
+    private void flush(Connection con) {
+        var batch = batches.remove(con);
+        if (batch == null || !con.isConnected())
+            return;
+
+        if (con.getProtocol() == ConnectionProtocol.PLAY)
+            sendBatch(con, batch, 0, batch.writerIndex());
+        else
+            LOGGER.warn(MARKER, "Dropped {} bytes queued on channel {} for {}, which left the play protocol before they were sent", batch.writerIndex(), getName(), con.getLoggableAddress(false));
+    }
+
+    private void sendBatch(Connection con, ByteBuf batch, int start, int length) {
+        // A batch of one message is sent exactly as if it had not been batched
+        boolean single = batch.getInt(start) == length - 4;
+        con.send(NetworkProtocol.PLAY.buildPacket(PacketFlow.CLIENTBOUND, getName(), out -> {
+            if (single) {
+                out.writeBytes(batch, start + 4, length - 4);
+            } else {
+                out.writeVarInt(BATCH_INDEX);
+                out.writeBytes(batch, start, length);
+            }
+        }));
+    }
+
     @Override
     protected Packet<?> toVanillaPacket(Connection con, Object message) {
-        var msg = get(message);
-        super.validate(message.getClass().getName(), con, msg.protocol(), msg.direction(), true);
+        validate(get(message), con, true);
         return super.toVanillaPacket(con, message);
     }
 
@@ -557,6 +731,19 @@ public class SimpleChannel extends Channel<Object> implements SimpleConnection<O
             msg.encoder().accept(message, out);
     }
 
+    /*
+     * Checks the message's protocol and direction directly, only going through the full validation, which
+     * resolves the expectations and builds the error, when they don't match.
+     */
+    private void validate(Message<?, ?> msg, Connection con, boolean sending) {
+        var protocol = msg.protocol();
+        var direction = msg.direction();
+        if ((protocol == null || protocol.toVanilla() == con.getProtocol()) &&
+            (direction == null || direction == (sending ? con.getSending() : con.getReceiving())))
+            return;
+        super.validate(msg.type().getName(), con, protocol, direction, sending);
+    }
+
     private void error(String message) {
         LOGGER.error(MARKER, message);
         throw new IllegalArgumentException(message);
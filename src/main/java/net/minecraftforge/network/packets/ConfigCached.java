@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.network.packets;
+
+import java.util.List;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+
+/*
+ * Sent by the client in reply to a ConfigList, acknowledging it and listing the configs it already has
+ * with a matching hash, so the server doesn't need to send them.
+ */
+public record ConfigCached(int token, List<String> cached) {
+    public static final StreamCodec<FriendlyByteBuf, ConfigCached> STREAM_CODEC = StreamCodec.ofMember(ConfigCached::encode, ConfigCached::decode);
+
+    public void encode(FriendlyByteBuf buf) {
+        buf.writeVarInt(token);
+        buf.writeCollection(cached, FriendlyByteBuf::writeUtf);
+    }
+
+    public static ConfigCached decode(FriendlyByteBuf buf) {
+        return new ConfigCached(buf.readVarInt(), buf.readList(FriendlyByteBuf::readUtf));
+    }
+}
@@ -5,18 +5,45 @@
 
 package net.minecraftforge.network.packets;
 
+import java.util.List;
+
+import io.netty.handler.codec.DecoderException;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.codec.StreamCodec;
 
-public record ConfigData(String name, byte[] data) {
+/**
+ * Every server config the client doesn't already have, sent together.
+ */
+public record ConfigData(List<Config> configs) {
     public static final StreamCodec<FriendlyByteBuf, ConfigData> STREAM_CODEC = StreamCodec.ofMember(ConfigData::encode, ConfigData::decode);
+    // Config files are small, this is only to stop a bad length from allocating a huge array
+    private static final int MAX_LENGTH = 0x1000000;
+
+    /**
+     * @param name The config's file name
+     * @param hash Hash of the uncompressed file contents
+     * @param length Length of the uncompressed file contents
+     * @param data The file contents, deflated
+     */
+    public record Config(String name, long hash, int length, byte[] data) {}
 
     public void encode(final FriendlyByteBuf buf) {
-        buf.writeUtf(this.name());
-        buf.writeByteArray(this.data());
+        buf.writeCollection(this.configs(), (b, cfg) -> {
+            b.writeUtf(cfg.name());
+            b.writeLong(cfg.hash());
+            b.writeVarInt(cfg.length());
+            b.writeByteArray(cfg.data());
+        });
     }
 
     public static ConfigData decode(FriendlyByteBuf buf) {
-        return new ConfigData(buf.readUtf(), buf.readByteArray());
+        return new ConfigData(buf.readList(b -> {
+            var name = b.readUtf();
+            var hash = b.readLong();
+            var length = b.readVarInt();
+            if (length < 0 || length > MAX_LENGTH)
+                throw new DecoderException("Invalid config length " + length + " for " + name);
+            return new Config(name, hash, length, b.readByteArray());
+        }));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.network.packets;
+
+import java.util.Map;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+
+/*
+ * Lists the server configs that are about to be synced, by file name, with the hash of their contents so the
+ * client can tell the server which ones it still has from a previous connection.
+ */
+public record ConfigList(int token, Map<String, Long> hashes) {
+    public static final StreamCodec<FriendlyByteBuf, ConfigList> STREAM_CODEC = StreamCodec.ofMember(ConfigList::encode, ConfigList::decode);
+
+    public void encode(FriendlyByteBuf buf) {
+        buf.writeVarInt(token);
+        buf.writeMap(hashes, FriendlyByteBuf::writeUtf, FriendlyByteBuf::writeLong);
+    }
+
+    public static ConfigList decode(FriendlyByteBuf buf) {
+        return new ConfigList(buf.readVarInt(), buf.readMap(FriendlyByteBuf::readUtf, FriendlyByteBuf::readLong));
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.network.packets;
+
+import java.util.List;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.resources.ResourceLocation;
+
+/*
+ * Sent by the client in reply to a RegistryList, acknowledging it and listing the registries it already has
+ * cached with a matching hash, so the server doesn't need to send them.
+ */
+public record RegistryCached(int token, List<ResourceLocation> cached) {
+    public static final StreamCodec<FriendlyByteBuf, RegistryCached> STREAM_CODEC = StreamCodec.ofMember(RegistryCached::encode, RegistryCached::decode);
+
+    public void encode(FriendlyByteBuf buf) {
+        buf.writeVarInt(token);
+        buf.writeCollection(cached, FriendlyByteBuf::writeResourceLocation);
+    }
+
+    public static RegistryCached decode(FriendlyByteBuf buf) {
+        return new RegistryCached(buf.readVarInt(), buf.readList(FriendlyByteBuf::readResourceLocation));
+    }
+}
@@ -14,27 +14,37 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraftforge.registries.DataPackRegistriesHooks;
 import net.minecraftforge.registries.RegistryManager;
 
+/**
+ * @param hashes Content hash of each registry in {@code normal}, in the same order. Empty if the registries will not be sent.
+ */
 public record RegistryList(
     int token,
     List<ResourceLocation> normal,
+    List<Long> hashes,
     List<ResourceKey<? extends Registry<?>>> datapacks) {
 
     public static final StreamCodec<FriendlyByteBuf, RegistryList> STREAM_CODEC = StreamCodec.ofMember(RegistryList::encode, RegistryList::decode);
 
     public RegistryList(int token) {
-        this(token, RegistryManager.getRegistryNamesForSyncToClient(), List.copyOf(DataPackRegistriesHooks.getSyncedCustomRegistries()));
+        this(token, RegistryManager.getRegistryNamesForSyncToClient(), List.of(), List.copyOf(DataPackRegistriesHooks.getSyncedCustomRegistries()));
+    }
+
+    public RegistryList(int token, RegistryManager.SyncSnapshot data) {
+        this(token, data.names(), data.names().stream().map(data.hashes()::getLong).toList(), List.copyOf(DataPackRegistriesHooks.getSyncedCustomRegistries()));
     }
 
     public static RegistryList decode(FriendlyByteBuf buf) {
         var token = buf.readVarInt();
         var normal = buf.readList(FriendlyByteBuf::readResourceLocation);
+        var hashes = buf.readList(FriendlyByteBuf::readLong);
         List<ResourceKey<? extends Registry<?>>> datapacks = buf.readList(b -> ResourceKey.createRegistryKey(buf.readResourceLocation()));
-        return new RegistryList(token, normal, datapacks);
+        return new RegistryList(token, normal, hashes, datapacks);
     }
 
     public void encode(FriendlyByteBuf buf) {
         buf.writeVarInt(token());
         buf.writeCollection(normal(), FriendlyByteBuf::writeResourceLocation);
+        buf.writeCollection(hashes(), FriendlyByteBuf::writeLong);
         buf.writeCollection(datapacks(), FriendlyByteBuf::writeResourceKey);
     }
 }
\ No newline at end of file
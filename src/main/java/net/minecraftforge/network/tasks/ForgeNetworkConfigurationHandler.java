@@ -30,7 +30,7 @@ public class ForgeNetworkConfigurationHandler {
         event.addTask(new ChannelVersionsTask());
         // Sync all of our registry mappings
         event.addTask(new SyncRegistriesTask());
-        // Lastly sync raw mod config files. We send raw file bytes, which is very inefficient, but we can change it later. //TODO: Compress/Optimize config file data
+        // Lastly sync the server config files, skipping any the client still has from a previous connection.
         event.addTask(new SyncConfigTask());
     }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.network.tasks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.slf4j.Logger;
+
+import com.electronwill.nightconfig.core.file.CommentedFileConfig;
+import com.electronwill.nightconfig.toml.TomlFormat;
+import com.google.common.hash.Hashing;
+import com.mojang.logging.LogUtils;
+
+import net.minecraftforge.fml.config.ConfigTracker;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.network.packets.ConfigData;
+
+/**
+ * Keeps the compressed contents of every server config in memory, so players joining don't each read them from disk.
+ * <p>
+ * A config is read again whenever it is loaded or reloaded, which happens off the login path, and dropped when it is
+ * unloaded. Anything missing by the time a player joins is read then.
+ * <p>
+ * Only configs backed by a file are refreshed. The loading and reloading events also fire on the client, for server
+ * configs it was sent or filled with defaults, and those are held in memory and never synced back out.
+ */
+@ApiStatus.Internal
+public final class ServerConfigCache {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Map<String, ConfigData.Config> CACHE = new ConcurrentHashMap<>();
+
+    private ServerConfigCache() {}
+
+    /**
+     * Reads and compresses the given config again, called when it is loaded or reloaded so joining players don't have to.
+     */
+    public static void refresh(ModConfig config) {
+        if (config.getType() != ModConfig.Type.SERVER || !(config.getConfigData() instanceof CommentedFileConfig))
+            return;
+
+        try {
+            CACHE.put(config.getFileName(), read(config));
+        } catch (UncheckedIOException e) {
+            // Leave it to be read when a player joins, which will report the error to them
+            CACHE.remove(config.getFileName());
+            LOGGER.warn("Failed to read server config {} for syncing", config.getFileName(), e.getCause());
+        }
+    }
+
+    /**
+     * Drops the cached contents of the given config, called when it is unloaded.
+     */
+    public static void invalidate(ModConfig config) {
+        if (config.getType() == ModConfig.Type.SERVER)
+            CACHE.remove(config.getFileName());
+    }
+
+    static List<ConfigData.Config> get() throws IOException {
+        var configs = ConfigTracker.INSTANCE.configSets().get(ModConfig.Type.SERVER);
+        var ret = new ArrayList<ConfigData.Config>(configs.size());
+        try {
+            for (var cfg : configs)
+                ret.add(CACHE.computeIfAbsent(cfg.getFileName(), k -> read(cfg)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return ret;
+    }
+
+    private static ConfigData.Config read(ModConfig cfg) {
+        byte[] raw;
+        if (cfg.getConfigData() instanceof CommentedFileConfig) {
+            try {
+                raw = Files.readAllBytes(cfg.getFullPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            // Not from a file, such as one that was synced in, so send what is in memory
+            raw = TomlFormat.instance().createWriter().writeToString(cfg.getConfigData()).getBytes(StandardCharsets.UTF_8);
+        }
+
+        var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(raw.length / 2 + 64);
+            var buf = new byte[4096];
+            while (!deflater.finished())
+                out.write(buf, 0, deflater.deflate(buf));
+            return new ConfigData.Config(cfg.getFileName(), Hashing.sha256().hashBytes(raw).asLong(), raw.length, out.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -6,7 +6,11 @@
 package net.minecraftforge.network.tasks;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
@@ -14,32 +18,88 @@ import org.apache.logging.log4j.MarkerManager;
 import org.jetbrains.annotations.ApiStatus;
 
 import net.minecraft.network.chat.Component;
-import net.minecraftforge.fml.config.ConfigTracker;
-import net.minecraftforge.fml.config.ModConfig;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.server.network.ConfigurationTask;
+import net.minecraftforge.event.network.CustomPayloadEvent;
+import net.minecraftforge.network.ForgePacketHandler;
 import net.minecraftforge.network.NetworkInitialization;
 import net.minecraftforge.network.config.ConfigurationTaskContext;
-import net.minecraftforge.network.config.SimpleConfigurationTask;
+import net.minecraftforge.network.packets.Acknowledge;
 import net.minecraftforge.network.packets.ConfigData;
+import net.minecraftforge.network.packets.ConfigList;
 
+/**
+ * Sends the server configs to the client.
+ * <p>
+ * The configs are compressed once and shared between connections, see {@link ServerConfigCache}. The client first
+ * replies with the configs it still has with the same content hash, then the rest are sent in a single packet.
+ */
 @ApiStatus.Internal
-class SyncConfigTask extends SimpleConfigurationTask {
+class SyncConfigTask implements ConfigurationTask {
     static final Type TYPE = new Type("forge:sync_configs");
     private static final Logger LOGGER = LogManager.getLogger();
     private static final Marker MARKER = MarkerManager.getMarker("FORGE_SYNC_CONFIG");
 
-    SyncConfigTask() {
-        super(TYPE, SyncConfigTask::run);
+    private ConfigurationTaskContext taskCtx;
+    private ForgePacketHandler handler;
+    private List<ConfigData.Config> configs;
+    private int expectedToken;
+
+    @Override
+    public void start(ConfigurationTaskContext ctx) {
+        this.taskCtx = ctx;
+        var con = ctx.getConnection();
+
+        // The client shares our configs when in memory, so there is nothing to sync.
+        if (con.isMemoryConnection()) {
+            ctx.finish(type());
+            return;
+        }
+
+        try {
+            this.configs = ServerConfigCache.get();
+        } catch (IOException e) {
+            LOGGER.error(MARKER, "Failed to read config files, terminating connection", e);
+            con.disconnect(Component.literal("Connection closed - Failed to read config on server"));
+            return;
+        }
+
+        this.handler = con.channel().attr(NetworkInitialization.CONTEXT).get();
+        this.expectedToken = this.handler.expectAck(this::sendConfigs);
+
+        var hashes = new HashMap<String, Long>();
+        for (var cfg : this.configs)
+            hashes.put(cfg.name(), cfg.hash());
+        NetworkInitialization.CONFIG.send(new ConfigList(this.expectedToken, hashes), con);
     }
 
-    private static void run(ConfigurationTaskContext ctx) {
-        for (var cfg : ConfigTracker.INSTANCE.configSets().get(ModConfig.Type.SERVER)) {
-            try {
-                var pkt = new ConfigData(cfg.getFileName(), Files.readAllBytes(cfg.getFullPath()));
-                NetworkInitialization.CONFIG.send(pkt, ctx.getConnection());
-            } catch (IOException e) {
-                LOGGER.error(MARKER, "Failed to read config file {} terminating connection", cfg.getFileName(), e);
-                ctx.getConnection().disconnect(Component.literal("Connection closed - Failed to read config on server"));
-            }
+    private void sendConfigs(Acknowledge msg, CustomPayloadEvent.Context ctx) {
+        if (msg.token() != expectedToken) {
+            LOGGER.error(MARKER, "Received unknown acknowledgement received {} exptected {}", msg.token(), expectedToken);
+            ctx.getConnection().disconnect(Component.literal("Illegal Acknowledge packet received, unknown token: " + msg.token()));
+            return;
+        }
+
+        var cached = this.handler.getClientCachedConfigs();
+        var toSend = new ArrayList<ConfigData.Config>();
+        for (var cfg : this.configs) {
+            if (!cached.contains(cfg.name()))
+                toSend.add(cfg);
         }
+        LOGGER.debug(MARKER, "Sending {} configs, client had {} cached", toSend.size(), this.configs.size() - toSend.size());
+
+        if (!toSend.isEmpty())
+            NetworkInitialization.CONFIG.reply(new ConfigData(toSend), ctx);
+        taskCtx.finish(type());
+    }
+
+    @Override
+    public void start(Consumer<Packet<?>> send) {
+        throw new IllegalStateException("This should never be called");
+    }
+
+    @Override
+    public Type type() {
+        return TYPE;
     }
 }
@@ -5,7 +5,9 @@
 
 package net.minecraftforge.network.tasks;
 
+import java.util.ArrayDeque;
 import java.util.Map;
+import java.util.Queue;
 import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
@@ -29,32 +31,42 @@ import net.minecraftforge.registries.ForgeRegistry.Snapshot;
 import net.minecraftforge.registries.RegistryManager;
 
 /**
- * Sends the list of known channels to the client as well as their specific versions.
- * Allows the client to do compatibility checking.
+ * Sends the id mappings of every synced registry to the client.
+ * <p>
+ * The registries are serialized once and shared between connections, see {@link RegistryManager#getSyncSnapshot()}.
+ * The client first replies with the registries it already has cached with the same content hash, then the rest are
+ * streamed with up to {@link #WINDOW} waiting to be acknowledged at once, so the time taken does not scale with latency
+ * times the number of registries.
  */
 @ApiStatus.Internal
 public class SyncRegistriesTask implements ConfigurationTask {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final Marker MARKER = MarkerManager.getMarker("SYNC_REGISTRIES_TASK");
     public static final Type TYPE = new Type("forge:sync_registries");
+    private static final int WINDOW = 8;
 
     private ConfigurationTaskContext taskCtx;
     private Map<ResourceLocation, Snapshot> snapshot;
     private ForgePacketHandler handler;
     private int expectedToken;
+    private final Queue<ResourceLocation> toSend = new ArrayDeque<>();
+    private int outstanding;
 
     @Override
     public void start(ConfigurationTaskContext ctx) {
         this.taskCtx = ctx;
         var con = ctx.getConnection();
         handler = con.channel().attr(NetworkInitialization.CONTEXT).get();
+        expectedToken = handler.expectAck(this::sendRegistries);
 
         // If we're in memory, then don't actually sync the registries.
-        if (!ctx.getConnection().isMemoryConnection())
-            this.snapshot = RegistryManager.ACTIVE.takeSnapshot(false);
-
-        expectedToken = handler.expectAck(this::sendRegistries);
-        NetworkInitialization.CONFIG.send(new RegistryList(expectedToken), con);
+        if (ctx.getConnection().isMemoryConnection()) {
+            NetworkInitialization.CONFIG.send(new RegistryList(expectedToken), con);
+        } else {
+            var data = RegistryManager.ACTIVE.getSyncSnapshot();
+            this.snapshot = data.snapshots();
+            NetworkInitialization.CONFIG.send(new RegistryList(expectedToken, data), con);
+        }
     }
 
     private void sendRegistries(Acknowledge msg, CustomPayloadEvent.Context ctx) {
@@ -64,17 +76,34 @@ public class SyncRegistriesTask implements ConfigurationTask {
             return;
         }
 
-        // We've got no more to send, so finish this task!
-        if (this.snapshot == null || this.snapshot.isEmpty()) {
-            taskCtx.finish(type());
-            return;
+        if (this.snapshot != null) {
+            var cached = this.handler.getClientCachedRegistries();
+            for (var name : this.snapshot.keySet()) {
+                if (!cached.contains(name))
+                    this.toSend.add(name);
+            }
+            LOGGER.debug(MARKER, "Sending {} registries, client had {} cached", this.toSend.size(), this.snapshot.size() - this.toSend.size());
         }
 
-        // Send the next registry!
-        var name = this.snapshot.keySet().iterator().next();
-        var data = this.snapshot.remove(name);
-        expectedToken = this.handler.expectAck(this::sendRegistries);
-        NetworkInitialization.CONFIG.reply(new RegistryData(expectedToken, name, data), ctx);
+        sendNext(ctx);
+    }
+
+    private void onRegistryAck(Acknowledge msg, CustomPayloadEvent.Context ctx) {
+        this.outstanding--;
+        sendNext(ctx);
+    }
+
+    private void sendNext(CustomPayloadEvent.Context ctx) {
+        while (this.outstanding < WINDOW && !this.toSend.isEmpty()) {
+            var name = this.toSend.poll();
+            int token = this.handler.expectAck(this::onRegistryAck);
+            this.outstanding++;
+            NetworkInitialization.CONFIG.reply(new RegistryData(token, name, this.snapshot.get(name)), ctx);
+        }
+
+        // We've got no more to send, and the client has everything, so finish this task!
+        if (this.outstanding == 0 && this.toSend.isEmpty())
+            taskCtx.finish(type());
     }
 
     @Override
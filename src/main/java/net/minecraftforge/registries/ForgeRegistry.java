@@ -28,7 +28,10 @@ import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntRBTreeSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2IntRBTreeMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.minecraft.core.Holder;
 import net.minecraft.core.HolderSet;
 import net.minecraft.nbt.Tag;
@@ -97,6 +100,15 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
 
     private V defaultValue = null;
     boolean isFrozen = false;
+    /*
+     * Allocation free copy of 'ids' for the hot lookup paths. Rebuilt by freeze() and bake(), and dropped by anything that
+     * changes ids, at which point lookups fall back to the BiMap until the next rebuild.
+     */
+    @Nullable
+    private volatile IdTable<V> idTable = null;
+    // The last snapshot taken while frozen, reused until something could have changed it
+    @Nullable
+    private volatile Snapshot snapshot = null;
 
     private final ResourceLocation name;
     private final ResourceKey<Registry<V>> key;
@@ -309,6 +321,14 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     }
 
     public int getID(V value) {
+        var table = this.idTable;
+        if (table != null) {
+            int ret = table.ids().getInt(value);
+            if (ret == -1 && this.defaultValue != null)
+                ret = table.ids().getInt(this.defaultValue);
+            return ret;
+        }
+
         Integer ret = this.ids.inverse().get(value);
         if (ret == null && this.defaultValue != null)
             ret = this.ids.inverse().get(this.defaultValue);
@@ -320,6 +340,10 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     }
 
     private int getIDRaw(V value) {
+        var table = this.idTable;
+        if (table != null)
+            return table.ids().getInt(value);
+
         Integer ret = this.ids.inverse().get(value);
         return ret == null ? -1 : ret.intValue();
     }
@@ -329,8 +353,14 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public V getValue(int id) {
-        V ret = this.ids.get(id);
+        var table = this.idTable;
+        V ret;
+        if (table != null && table.values() != null)
+            ret = id >= 0 && id < table.values().length ? (V)table.values()[id] : null;
+        else
+            ret = this.ids.get(id);
         return ret == null ? this.defaultValue : ret;
     }
 
@@ -410,6 +440,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         this.names.put(key, value);
         this.keys.put(rkey, value);
         this.ids.put(idToUse, value);
+        onIdsChanged();
         this.availabilityMap.set(idToUse);
         this.owners.put(new OverrideOwner<V>(owner == null ? key.getNamespace() : owner, rkey), value);
 
@@ -558,10 +589,36 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     }
 
     public void bake() {
+        buildIdTable();
+        this.stage.invalidateSyncSnapshot();
         if (this.bake != null)
             this.bake.onBake(this, this.stage);
     }
 
+    private void buildIdTable() {
+        int size = 0;
+        for (int id : this.ids.keySet())
+            size = Math.max(size, id + 1);
+
+        // Ids are normally handed out densely, but loaded ones could be anything, so don't let a few huge ids allocate a huge array.
+        var values = size <= this.ids.size() * 2 + 1024 ? new Object[size] : null;
+        var toId = new Reference2IntOpenHashMap<V>(this.ids.size());
+        toId.defaultReturnValue(-1);
+        for (var entry : this.ids.entrySet()) {
+            if (values != null)
+                values[entry.getKey()] = entry.getValue();
+            toId.put(entry.getValue(), entry.getKey().intValue());
+        }
+        this.idTable = new IdTable<>(values, toId);
+    }
+
+    private record IdTable<V>(@Nullable Object[] values, Reference2IntMap<V> ids) {}
+
+    private void onIdsChanged() {
+        this.idTable = null;
+        this.snapshot = null;
+    }
+
     void sync(ResourceLocation name, ForgeRegistry<V> from) {
         LOGGER.debug(REGISTRIES,"Registry {} Sync: {} -> {}", this.name, this.stage.getName(), from.stage.getName());
         if (this == from)
@@ -584,6 +641,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         }
 
         this.ids.clear();
+        onIdsChanged();
         this.names.clear();
         this.keys.clear();
         this.availabilityMap.clear(0, this.availabilityMap.length());
@@ -640,6 +698,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         this.aliases.clear();
 
         this.ids.clear();
+        onIdsChanged();
         this.names.clear();
         this.keys.clear();
         this.availabilityMap.clear(0, this.availabilityMap.length());
@@ -660,6 +719,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
                 throw new IllegalStateException("Removed a entry that did not have an associated RegistryKey: " + key + " " + value.toString() + " This should never happen unless hackery!");
 
             Integer id = this.ids.inverse().remove(value);
+            onIdsChanged();
             if (id == null)
                 throw new IllegalStateException("Removed a entry that did not have an associated id: " + key + " " + value.toString() + " This should never happen unless hackery!");
 
@@ -670,6 +730,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     }
 
     void block(int id) {
+        this.snapshot = null;
         this.blocked.add(id);
         this.availabilityMap.set(id);
     }
@@ -685,6 +746,8 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
      */
     public void freeze() {
         this.isFrozen = true;
+        this.snapshot = null;
+        buildIdTable();
         var wrapper = this.getWrapper();
         if (wrapper != null)
             wrapper.locked = true;
@@ -692,6 +755,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
 
     public void unfreeze() {
         this.isFrozen = false;
+        this.snapshot = null;
         var wrapper = this.getWrapper();
         if (wrapper != null)
             wrapper.locked = false;
@@ -793,8 +857,16 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         }
     }
 
+    /**
+     * Takes a snapshot of the current ids. While the registry is frozen the same snapshot, along with its encoded forms, is
+     * returned every time, so it must not be modified.
+     */
     //Public for tests
     public Snapshot makeSnapshot() {
+        var cached = this.snapshot;
+        if (cached != null && this.isFrozen)
+            return cached;
+
         Snapshot ret = new Snapshot();
         for (Entry<Integer, V> entry : this.ids.entrySet()) {
             Integer id = entry.getKey();
@@ -804,6 +876,8 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         ret.aliases.putAll(this.aliases);
         ret.blocked.addAll(this.blocked);
         ret.overrides.putAll(getOverrideOwners());
+        if (this.isFrozen)
+            this.snapshot = ret;
         return ret;
     }
 
@@ -855,46 +929,35 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         public final Map<ResourceLocation, String> overrides = new TreeMap<>(sorter);
         private FriendlyByteBuf binary = null;
 
+        /*
+         * Both the save and network forms use the same compact encoding:
+         *   The table of namespaces used by ids, then every id sorted by its int value, as three columns:
+         *   namespace index, path, and the difference from the previous int id. As ids are mostly allocated sequentially
+         *   the id and namespace columns are usually a single byte per entry.
+         *   Followed by aliases, overrides, and the blocked ids as deltas.
+         * Snapshots saved by older versions as lists of compounds can still be read.
+         */
         public CompoundTag write() {
             CompoundTag data = new CompoundTag();
-
-            ListTag ids = new ListTag();
-            this.ids.object2IntEntrySet().forEach(e -> {
-                CompoundTag tag = new CompoundTag();
-                tag.putString("K", e.getKey().toString());
-                tag.putInt("V", e.getIntValue());
-                ids.add(tag);
-            });
-            data.put("ids", ids);
-
-            ListTag aliases = new ListTag();
-            this.aliases.forEach((k, v) -> {
-                CompoundTag tag = new CompoundTag();
-                tag.putString("K", k.toString());
-                tag.putString("V", v.toString());
-                aliases.add(tag);
-            });
-            data.put("aliases", aliases);
-
-            ListTag overrides = new ListTag();
-            this.overrides.forEach((k, v) -> {
-                CompoundTag tag = new CompoundTag();
-                tag.putString("K", k.toString());
-                tag.putString("V", v);
-                overrides.add(tag);
-            });
-            data.put("overrides", overrides);
-
-            int[] blocked = this.blocked.intStream().sorted().toArray();
-            data.putIntArray("blocked", blocked);
-
+            var buf = getPacketData();
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            data.putByteArray("compact", bytes);
             return data;
         }
 
         public static Snapshot read(CompoundTag nbt) {
-            Snapshot ret = new Snapshot();
             if (nbt == null)
-                return ret;
+                return new Snapshot();
+
+            if (nbt.contains("compact", Tag.TAG_BYTE_ARRAY))
+                return read(new FriendlyByteBuf(Unpooled.wrappedBuffer(nbt.getByteArray("compact"))));
+
+            return readLegacy(nbt);
+        }
+
+        private static Snapshot readLegacy(CompoundTag nbt) {
+            Snapshot ret = new Snapshot();
 
             ListTag list = nbt.getList("ids", 10);
             for (Tag tag : list) {
@@ -924,10 +987,41 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         public synchronized FriendlyByteBuf getPacketData() {
             if (binary == null) {
                 FriendlyByteBuf pkt = new FriendlyByteBuf(Unpooled.buffer());
-                pkt.writeMap(this.ids, FriendlyByteBuf::writeResourceLocation, FriendlyByteBuf::writeVarInt);
+
+                var byId = new ArrayList<>(this.ids.object2IntEntrySet());
+                byId.sort(Comparator.<Object2IntMap.Entry<ResourceLocation>>comparingInt(Object2IntMap.Entry::getIntValue));
+
+                var namespaces = new Object2IntOpenHashMap<String>();
+                var namespaceList = new ArrayList<String>();
+                for (var entry : byId) {
+                    var namespace = entry.getKey().getNamespace();
+                    if (!namespaces.containsKey(namespace)) {
+                        namespaces.put(namespace, namespaceList.size());
+                        namespaceList.add(namespace);
+                    }
+                }
+
+                pkt.writeCollection(namespaceList, FriendlyByteBuf::writeUtf);
+                pkt.writeVarInt(byId.size());
+                for (var entry : byId)
+                    pkt.writeVarInt(namespaces.getInt(entry.getKey().getNamespace()));
+                for (var entry : byId)
+                    pkt.writeUtf(entry.getKey().getPath());
+                int last = 0;
+                for (var entry : byId) {
+                    pkt.writeVarInt(entry.getIntValue() - last);
+                    last = entry.getIntValue();
+                }
+
                 pkt.writeMap(this.aliases, FriendlyByteBuf::writeResourceLocation, FriendlyByteBuf::writeResourceLocation);
                 pkt.writeMap(this.overrides, FriendlyByteBuf::writeResourceLocation, (b,v) -> b.writeUtf(v, 0x100));
-                pkt.writeCollection(this.blocked, FriendlyByteBuf::writeVarInt);
+
+                pkt.writeVarInt(this.blocked.size());
+                last = 0;
+                for (int id : this.blocked) { // IntRBTreeSet, so already sorted
+                    pkt.writeVarInt(id - last);
+                    last = id;
+                }
                 this.binary = pkt;
             }
 
@@ -939,10 +1033,29 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
                 return new Snapshot();
 
             var ret = new Snapshot();
-            ret.ids.putAll(buf.readMap(FriendlyByteBuf::readResourceLocation, FriendlyByteBuf::readVarInt));
+            var namespaces = buf.readList(FriendlyByteBuf::readUtf);
+            int count = buf.readVarInt();
+            int[] namespace = new int[count];
+            for (int x = 0; x < count; x++)
+                namespace[x] = buf.readVarInt();
+            var names = new ResourceLocation[count];
+            for (int x = 0; x < count; x++)
+                names[x] = ResourceLocation.fromNamespaceAndPath(namespaces.get(namespace[x]), buf.readUtf());
+            int id = 0;
+            for (int x = 0; x < count; x++) {
+                id += buf.readVarInt();
+                ret.ids.put(names[x], id);
+            }
+
             ret.aliases.putAll(buf.readMap(FriendlyByteBuf::readResourceLocation, FriendlyByteBuf::readResourceLocation));
             ret.overrides.putAll(buf.readMap(FriendlyByteBuf::readResourceLocation, b -> b.readUtf(0x100)));
-            ret.blocked.addAll(buf.readList(FriendlyByteBuf::readVarInt));
+
+            int blocked = buf.readVarInt();
+            id = 0;
+            for (int x = 0; x < blocked; x++) {
+                id += buf.readVarInt();
+                ret.blocked.add(id);
+            }
             return ret;
         }
     }
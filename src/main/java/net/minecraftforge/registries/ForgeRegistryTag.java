@@ -5,6 +5,7 @@
 
 package net.minecraftforge.registries;
 
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.Util;
 import net.minecraft.core.Holder;
 import net.minecraft.core.HolderSet;
@@ -18,6 +19,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.stream.Stream;
 
@@ -27,7 +29,7 @@ class ForgeRegistryTag<V> implements ITag<V>
     @Nullable
     private HolderSet<V> holderSet;
     @Nullable
-    private List<V> contents;
+    private Contents<V> contents;
 
     ForgeRegistryTag(TagKey<V> key)
     {
@@ -74,7 +76,7 @@ class ForgeRegistryTag<V> implements ITag<V>
     @Override
     public boolean contains(V value)
     {
-        return this.getContents().contains(value);
+        return this.getOrBuildContents().set().contains(value);
     }
 
     @Override
@@ -91,10 +93,22 @@ class ForgeRegistryTag<V> implements ITag<V>
 
     List<V> getContents()
     {
-        if (this.contents == null && this.holderSet != null)
-            this.contents = this.holderSet.stream().map(Holder::value).toList();
+        return this.getOrBuildContents().list();
+    }
 
-        return this.contents == null ? List.of() : this.contents;
+    private Contents<V> getOrBuildContents()
+    {
+        Contents<V> ret = this.contents;
+        if (ret == null)
+        {
+            if (this.holderSet == null)
+                return Contents.empty();
+            List<V> list = this.holderSet.stream().map(Holder::value).toList();
+            // Registry entries are unique instances, so identity is enough and avoids calling equals/hashCode on mod objects
+            ret = new Contents<>(list, new ReferenceOpenHashSet<>(list));
+            this.contents = ret;
+        }
+        return ret;
     }
 
     void bind(@Nullable HolderSet<V> holderSet)
@@ -103,6 +117,21 @@ class ForgeRegistryTag<V> implements ITag<V>
         this.contents = null;
     }
 
+    /**
+     * The resolved values of a bound tag, in order for iteration and as a set for {@link #contains}.
+     * Built the first time either is needed after binding, and immutable afterwards so it can be shared between threads.
+     */
+    private record Contents<V>(List<V> list, Set<V> set)
+    {
+        private static final Contents<?> EMPTY = new Contents<>(List.of(), Set.of());
+
+        @SuppressWarnings("unchecked")
+        static <V> Contents<V> empty()
+        {
+            return (Contents<V>) EMPTY;
+        }
+    }
+
     @Override
     public String toString()
     {
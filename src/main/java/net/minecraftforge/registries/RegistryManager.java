@@ -8,11 +8,16 @@ package net.minecraftforge.registries;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
+import com.google.common.hash.Hashing;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
 
 import net.minecraft.core.RegistrationInfo;
 import net.minecraft.core.WritableRegistry;
@@ -39,6 +44,7 @@ public class RegistryManager {
     private final Set<ResourceLocation> synced = new HashSet<>();
     private final Map<ResourceLocation, ResourceLocation> legacyNames = new HashMap<>();
     private final String name;
+    private volatile SyncSnapshot syncSnapshot;
 
     RegistryManager() {
         this("STAGING");
@@ -157,6 +163,40 @@ public class RegistryManager {
         return ret;
     }
 
+    /**
+     * The synced registries as they are sent to clients, along with a hash of each one's content so clients can tell
+     * whether they already have it. Built the first time it's needed and shared by every connection until the ids next change.
+     */
+    @ApiStatus.Internal
+    public SyncSnapshot getSyncSnapshot() {
+        var ret = this.syncSnapshot;
+        if (ret == null) {
+            synchronized (this) {
+                ret = this.syncSnapshot;
+                if (ret == null) {
+                    var names = this.registries.keySet().stream().filter(this.synced::contains).toList();
+                    var snapshots = new LinkedHashMap<ResourceLocation, Snapshot>();
+                    var hashes = new Object2LongOpenHashMap<ResourceLocation>();
+                    for (var key : names) {
+                        var snapshot = getRegistry(key).makeSnapshot();
+                        snapshots.put(key, snapshot);
+                        hashes.put(key, Hashing.sha256().hashBytes(snapshot.getPacketData().nioBuffer()).asLong());
+                    }
+                    ret = new SyncSnapshot(names, Collections.unmodifiableMap(snapshots), hashes);
+                    this.syncSnapshot = ret;
+                }
+            }
+        }
+        return ret;
+    }
+
+    void invalidateSyncSnapshot() {
+        this.syncSnapshot = null;
+    }
+
+    @ApiStatus.Internal
+    public record SyncSnapshot(List<ResourceLocation> names, Map<ResourceLocation, Snapshot> snapshots, Object2LongMap<ResourceLocation> hashes) {}
+
     //Public for testing only
     @ApiStatus.Internal
     public void clean() {
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.command;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import net.minecraft.Util;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraftforge.common.WorldWorkerManager;
+import net.minecraftforge.common.WorldWorkerManager.IWorker;
+
+/**
+ * Pre-generates every chunk within a square radius, keeping a bounded number of chunk loads in flight at once instead of
+ * blocking on each one like {@link ChunkGenWorker}.
+ * <p>
+ * Chunks are visited region by region, spiraling out from the center, and in region file order within each region so
+ * writes stay local. New chunks are not requested while the number of pending chunk saves is above a limit, and progress
+ * is saved with the dimension so the task resumes after a restart.
+ */
+public class ChunkPregenWorker implements IWorker {
+    private static final String DATA_ID = "forge_pregen";
+    private static final TicketType<ChunkPos> TICKET = TicketType.create("forge:pregen", Comparator.comparingLong(ChunkPos::toLong));
+    private static final Map<ResourceKey<Level>, ChunkPregenWorker> ACTIVE = new ConcurrentHashMap<>();
+    private static final int REGION_BITS = 5;
+    private static final int REGION_SIZE = 1 << REGION_BITS;
+    private static final int CHUNKS_PER_REGION = REGION_SIZE * REGION_SIZE;
+    private static final long NOTIFY_INTERVAL = 60 * 1000;
+
+    private final CommandSourceStack listener;
+    private final ServerLevel dim;
+    private final Progress progress;
+    private final long[] regions;
+    private final long total;
+    private final int window;
+    private final int maxPendingWrites;
+    private final ArrayDeque<Pending> inFlight = new ArrayDeque<>();
+    private long position;
+    private long lastNotificationTime;
+    private boolean cancelled;
+
+    private ChunkPregenWorker(CommandSourceStack listener, ServerLevel dim, Progress progress) {
+        this.listener = listener;
+        this.dim = dim;
+        this.progress = progress;
+        this.regions = buildRegions(progress.centerX, progress.centerZ, progress.radius);
+        this.total = (2L * progress.radius + 1) * (2L * progress.radius + 1);
+        this.window = progress.window;
+        this.maxPendingWrites = progress.window * 2;
+        this.position = progress.position;
+        this.lastNotificationTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Starts a new pre-generation task, replacing any existing one in the same dimension
+     */
+    public static ChunkPregenWorker start(CommandSourceStack listener, ServerLevel dim, ChunkPos center, int radius, int window) {
+        stop(dim);
+        Progress progress = getProgress(dim, true);
+        progress.reset(center, radius, window);
+        ChunkPregenWorker worker = new ChunkPregenWorker(listener, dim, progress);
+        ACTIVE.put(dim.dimension(), worker);
+        WorldWorkerManager.addWorker(worker);
+        return worker;
+    }
+
+    /**
+     * Stops the task in the given dimension, if any, and forgets its saved progress
+     *
+     * @return If there was a task to stop
+     */
+    public static boolean stop(ServerLevel dim) {
+        ChunkPregenWorker worker = ACTIVE.remove(dim.dimension());
+        if (worker != null)
+            worker.cancelled = true;
+
+        Progress progress = getProgress(dim, false);
+        boolean running = worker != null || (progress != null && progress.radius >= 0);
+        if (progress != null)
+            progress.clear();
+        return running;
+    }
+
+    /**
+     * Restarts any tasks that were running when the server last stopped
+     */
+    public static void resumeAll(MinecraftServer server) {
+        ACTIVE.clear();
+        for (ServerLevel dim : server.getAllLevels()) {
+            Progress progress = getProgress(dim, false);
+            if (progress == null || progress.radius < 0)
+                continue;
+
+            ChunkPregenWorker worker = new ChunkPregenWorker(server.createCommandSourceStack(), dim, progress);
+            ACTIVE.put(dim.dimension(), worker);
+            WorldWorkerManager.addWorker(worker);
+            server.sendSystemMessage(Component.translatable("commands.forge.gen.pregen.resume", dim.dimension().location(), worker.getCompleted(), worker.total));
+        }
+    }
+
+    public Component getStartMessage() {
+        return Component.translatable("commands.forge.gen.pregen.start", total, progress.radius, progress.centerX, progress.centerZ, dim.dimension().location());
+    }
+
+    private long getCompleted() {
+        return progress.completed;
+    }
+
+    @Override
+    public boolean hasWork() {
+        return !inFlight.isEmpty() || (!cancelled && position < (long)regions.length * CHUNKS_PER_REGION);
+    }
+
+    @Override
+    public boolean isWaiting() {
+        retire();
+        boolean backlogged = dim.getChunkSource().chunkMap.getPendingChunkWrites() > maxPendingWrites;
+        boolean submitting = !cancelled && position < (long)regions.length * CHUNKS_PER_REGION;
+        if (inFlight.isEmpty())
+            return submitting && backlogged;
+        // Nothing to do until a chunk finishes if we can't submit any more
+        return !submitting || backlogged || inFlight.size() >= window;
+    }
+
+    @Override
+    public int getPriority() {
+        return -1;
+    }
+
+    @Override
+    public boolean doWork() {
+        retire();
+
+        ServerChunkCache cache = dim.getChunkSource();
+        long end = (long)regions.length * CHUNKS_PER_REGION;
+        while (!cancelled && inFlight.size() < window && position < end && cache.chunkMap.getPendingChunkWrites() <= maxPendingWrites) {
+            ChunkPos pos = getChunk(position++);
+            if (pos == null)
+                continue;
+
+            cache.addRegionTicket(TICKET, pos, 0, pos);
+            // Requesting from off the main thread returns immediately instead of blocking until the chunk is ready.
+            CompletableFuture<?> future = CompletableFuture.supplyAsync(() -> cache.getChunkFuture(pos.x, pos.z, ChunkStatus.FULL, true), Util.backgroundExecutor())
+                .thenCompose(f -> f);
+            inFlight.add(new Pending(pos, position, future));
+        }
+
+        if (!hasWork()) {
+            ACTIVE.remove(dim.dimension(), this);
+            if (!cancelled) {
+                progress.clear();
+                listener.sendSuccess(() -> Component.translatable("commands.forge.gen.pregen.complete", progress.completed, dim.dimension().location()), true);
+            }
+            return false;
+        }
+
+        if (System.currentTimeMillis() - lastNotificationTime >= NOTIFY_INTERVAL) {
+            listener.sendSuccess(() -> Component.translatable("commands.forge.gen.progress", progress.completed, total), true);
+            lastNotificationTime = System.currentTimeMillis();
+        }
+        return true;
+    }
+
+    /**
+     * Releases the tickets of finished chunks, in the order they were requested, and records how far we have safely gotten.
+     */
+    private void retire() {
+        ServerChunkCache cache = dim.getChunkSource();
+        boolean changed = false;
+        while (!inFlight.isEmpty() && inFlight.peek().future.isDone()) {
+            Pending pending = inFlight.poll();
+            cache.removeRegionTicket(TICKET, pending.pos, 0, pending.pos);
+            if (!cancelled) {
+                progress.completed++;
+                progress.position = pending.next;
+                changed = true;
+            }
+        }
+        if (changed)
+            progress.setDirty();
+    }
+
+    private ChunkPos getChunk(long position) {
+        long region = regions[(int)(position / CHUNKS_PER_REGION)];
+        int local = (int)(position % CHUNKS_PER_REGION);
+        int x = (ChunkPos.getX(region) << REGION_BITS) + (local & (REGION_SIZE - 1));
+        int z = (ChunkPos.getZ(region) << REGION_BITS) + (local >> REGION_BITS);
+        if (Math.abs(x - progress.centerX) > progress.radius || Math.abs(z - progress.centerZ) > progress.radius)
+            return null;
+        return new ChunkPos(x, z);
+    }
+
+    private static long[] buildRegions(int centerX, int centerZ, int radius) {
+        if (radius < 0)
+            return new long[0];
+        int minX = (centerX - radius) >> REGION_BITS;
+        int maxX = (centerX + radius) >> REGION_BITS;
+        int minZ = (centerZ - radius) >> REGION_BITS;
+        int maxZ = (centerZ + radius) >> REGION_BITS;
+        int cx = centerX >> REGION_BITS;
+        int cz = centerZ >> REGION_BITS;
+
+        return LongStream.rangeClosed(minZ, maxZ)
+            .flatMap(z -> LongStream.rangeClosed(minX, maxX).map(x -> ChunkPos.asLong((int)x, (int)z)))
+            .boxed()
+            .sorted(Comparator.<Long>comparingInt(r -> Math.max(Math.abs(ChunkPos.getX(r) - cx), Math.abs(ChunkPos.getZ(r) - cz)))
+                .thenComparingInt(r -> ChunkPos.getZ(r))
+                .thenComparingInt(r -> ChunkPos.getX(r)))
+            .mapToLong(Long::longValue)
+            .toArray();
+    }
+
+    private static Progress getProgress(ServerLevel dim, boolean create) {
+        var factory = new SavedData.Factory<>(Progress::new, Progress::load, null);
+        var storage = dim.getDataStorage();
+        return create ? storage.computeIfAbsent(factory, DATA_ID) : storage.get(factory, DATA_ID);
+    }
+
+    private record Pending(ChunkPos pos, long next, CompletableFuture<?> future) {}
+
+    private static class Progress extends SavedData {
+        private int centerX;
+        private int centerZ;
+        private int radius = -1;
+        private int window;
+        private long position;
+        private long completed;
+
+        private void reset(ChunkPos center, int radius, int window) {
+            this.centerX = center.x;
+            this.centerZ = center.z;
+            this.radius = radius;
+            this.window = window;
+            this.position = 0;
+            this.completed = 0;
+            setDirty();
+        }
+
+        private void clear() {
+            this.radius = -1;
+            setDirty();
+        }
+
+        private static Progress load(CompoundTag tag, HolderLookup.Provider provider) {
+            Progress ret = new Progress();
+            ret.centerX = tag.getInt("centerX");
+            ret.centerZ = tag.getInt("centerZ");
+            ret.radius = tag.contains("radius") ? tag.getInt("radius") : -1;
+            ret.window = Math.max(1, tag.getInt("window"));
+            ret.position = tag.getLong("position");
+            ret.completed = tag.getLong("completed");
+            return ret;
+        }
+
+        @Override
+        public CompoundTag save(CompoundTag tag, HolderLookup.Provider provider) {
+            tag.putInt("centerX", centerX);
+            tag.putInt("centerZ", centerZ);
+            tag.putInt("radius", radius);
+            tag.putInt("window", window);
+            tag.putLong("position", position);
+            tag.putLong("completed", completed);
+            return tag;
+        }
+    }
+}
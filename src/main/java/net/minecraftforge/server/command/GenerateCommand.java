@@ -14,13 +14,36 @@ import net.minecraft.commands.Commands;
 import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
 import net.minecraft.commands.arguments.DimensionArgument;
 import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraftforge.common.WorldWorkerManager;
 
 class GenerateCommand {
+    private static final int DEFAULT_WINDOW = 32;
+
     static ArgumentBuilder<CommandSourceStack, ?> register() {
         return Commands.literal("generate")
             .requires(cs->cs.hasPermission(4)) //permission
+            .then(Commands.literal("pregen")
+                .then(Commands.literal("stop")
+                    .then(Commands.argument("dim", DimensionArgument.dimension())
+                        .executes(ctx -> stop(ctx.getSource(), DimensionArgument.getDimension(ctx, "dim")))
+                    )
+                    .executes(ctx -> stop(ctx.getSource(), ctx.getSource().getLevel()))
+                )
+                .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                    .then(Commands.argument("radius", IntegerArgumentType.integer(0))
+                        .then(Commands.argument("dim", DimensionArgument.dimension())
+                            .then(Commands.argument("window", IntegerArgumentType.integer(1, 1024))
+                                .executes(ctx -> pregen(ctx.getSource(), BlockPosArgument.getSpawnablePos(ctx, "pos"), getInt(ctx, "radius"), DimensionArgument.getDimension(ctx, "dim"), getInt(ctx, "window")))
+                            )
+                            .executes(ctx -> pregen(ctx.getSource(), BlockPosArgument.getSpawnablePos(ctx, "pos"), getInt(ctx, "radius"), DimensionArgument.getDimension(ctx, "dim"), DEFAULT_WINDOW))
+                        )
+                        .executes(ctx -> pregen(ctx.getSource(), BlockPosArgument.getSpawnablePos(ctx, "pos"), getInt(ctx, "radius"), ctx.getSource().getLevel(), DEFAULT_WINDOW))
+                    )
+                )
+            )
             .then(Commands.argument("pos", BlockPosArgument.blockPos())
                 .then(Commands.argument("count", IntegerArgumentType.integer(1))
                     .then(Commands.argument("dim", DimensionArgument.dimension())
@@ -47,4 +70,18 @@ class GenerateCommand {
 
         return 0;
     }
+
+    private static int pregen(CommandSourceStack source, BlockPos pos, int radius, ServerLevel dim, int window) {
+        ChunkPregenWorker worker = ChunkPregenWorker.start(source, dim, new ChunkPos(pos), radius, window);
+        source.sendSuccess(worker::getStartMessage, true);
+        return 0;
+    }
+
+    private static int stop(CommandSourceStack source, ServerLevel dim) {
+        if (ChunkPregenWorker.stop(dim))
+            source.sendSuccess(() -> Component.translatable("commands.forge.gen.pregen.stopped", dim.dimension().location()), true);
+        else
+            source.sendFailure(Component.translatable("commands.forge.gen.pregen.not_running", dim.dimension().location()));
+        return 0;
+    }
 }
@@ -16,6 +16,7 @@ import net.minecraft.core.registries.Registries;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.level.dimension.DimensionType;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.server.timings.TickTimeStats;
 
 class TPSCommand
 {
@@ -26,6 +27,19 @@ class TPSCommand
     {
         return Commands.literal("tps")
             .requires(cs->cs.hasPermission(0)) //permission
+            .then(Commands.literal("stats")
+                .then(Commands.argument("dim", DimensionArgument.dimension())
+                    .executes(ctx -> sendStats(ctx.getSource(), DimensionArgument.getDimension(ctx, "dim")))
+                )
+                .executes(ctx -> {
+                    for (ServerLevel dim : ctx.getSource().getServer().getAllLevels())
+                        sendStats(ctx.getSource(), dim);
+
+                    for (TickTimeStats.Window window : TickTimeStats.Window.values())
+                        sendStats(ctx.getSource(), Component.translatable("commands.forge.tps.stats.overall"), window, TickTimeStats.getServerStats(window));
+                    return 0;
+                })
+            )
             .then(Commands.argument("dim", DimensionArgument.dimension())
                 .executes(ctx -> sendTime(ctx.getSource(), DimensionArgument.getDimension(ctx, "dim")))
             )
@@ -58,6 +72,23 @@ class TPSCommand
         return 1;
     }
 
+    private static int sendStats(CommandSourceStack cs, ServerLevel dim)
+    {
+        for (TickTimeStats.Window window : TickTimeStats.Window.values())
+        {
+            TickTimeStats.Stats stats = TickTimeStats.getStats(dim.dimension(), window);
+            if (stats != null)
+                sendStats(cs, Component.literal(dim.dimension().location().toString()), window, stats);
+        }
+        return 1;
+    }
+
+    private static void sendStats(CommandSourceStack cs, Component name, TickTimeStats.Window window, TickTimeStats.Stats stats)
+    {
+        cs.sendSuccess(() -> Component.translatable("commands.forge.tps.stats.entry", name, window.getLabel(), TIME_FORMATTER.format(stats.getP50()),
+            TIME_FORMATTER.format(stats.getP95()), TIME_FORMATTER.format(stats.getP99()), TIME_FORMATTER.format(stats.getMax()), stats.getSpikes()), false);
+    }
+
     private static long mean(long[] values)
     {
         long sum = 0L;
@@ -6,26 +6,44 @@
 package net.minecraftforge.server.command;
 
 import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import com.mojang.brigadier.builder.ArgumentBuilder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
+import net.minecraftforge.fml.loading.FMLPaths;
 import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.server.timings.ModTimings;
 import net.minecraftforge.server.timings.ForgeTimings;
 import net.minecraftforge.server.timings.TimeTracker;
+import net.minecraftforge.server.timings.TimingHistogram;
 
 class TrackCommand {
     private static final DecimalFormat TIME_FORMAT = new DecimalFormat("#####0.00");
+    private static final DecimalFormat PERCENT_FORMAT = new DecimalFormat("##0.0");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
     static ArgumentBuilder<CommandSourceStack, ?> register() {
         return Commands.literal("track")
@@ -33,9 +51,16 @@ class TrackCommand {
             .then(ResetTrackingCommand.register())
             .then(TrackResultsEntity.register())
             .then(TrackResultsBlockEntity.register())
+            .then(HistogramCommand.register())
+            .then(ModsCommand.register())
             .then(StartTrackingCommand.register());
     }
 
+    private static String formatNanos(double nanos) {
+        double micros = nanos / 1000;
+        return (micros > 1000 ? TIME_FORMAT.format(micros / 1000) : TIME_FORMAT.format(micros)) + (micros < 1000 ? "\u03bcs" : "ms");
+    }
+
     private static class StartTrackingCommand {
         static ArgumentBuilder<CommandSourceStack, ?> register() {
             return Commands.literal("start")
@@ -147,4 +172,157 @@ class TrackCommand {
             }));
         }
     }
+
+    private static class HistogramCommand {
+        static ArgumentBuilder<CommandSourceStack, ?> register() {
+            return Commands.literal("histogram")
+                .then(register("te", "be", TimeTracker.BLOCK_ENTITY_UPDATE, type -> ForgeRegistries.BLOCK_ENTITY_TYPES.getKey((BlockEntityType<?>)type)))
+                .then(register("entity", "entity", TimeTracker.ENTITY_UPDATE, type -> ForgeRegistries.ENTITY_TYPES.getKey((EntityType<?>)type)));
+        }
+
+        private static ArgumentBuilder<CommandSourceStack, ?> register(String name, String lang, TimeTracker<?> tracker, Function<Object, Object> typeName) {
+            return Commands.literal(name)
+                .executes(ctx -> execute(ctx.getSource(), tracker, typeName))
+                .then(Commands.literal("start")
+                    .requires(cs->cs.hasPermission(2)) //permission
+                    .executes(ctx -> {
+                        tracker.enableHistograms();
+                        ctx.getSource().sendSuccess(() -> Component.translatable("commands.forge.tracking." + lang + ".histogram.enabled"), true);
+                        return 0;
+                    })
+                )
+                .then(Commands.literal("stop")
+                    .requires(cs->cs.hasPermission(2)) //permission
+                    .executes(ctx -> {
+                        tracker.disableHistograms();
+                        ctx.getSource().sendSuccess(() -> Component.translatable("commands.forge.tracking." + lang + ".histogram.disabled"), true);
+                        return 0;
+                    })
+                )
+                .then(Commands.literal("reset")
+                    .requires(cs->cs.hasPermission(2)) //permission
+                    .executes(ctx -> {
+                        tracker.resetHistograms();
+                        ctx.getSource().sendSuccess(() -> Component.translatable("commands.forge.tracking." + lang + ".reset"), true);
+                        return 0;
+                    })
+                );
+        }
+
+        private static int execute(CommandSourceStack source, TimeTracker<?> tracker, Function<Object, Object> typeName) {
+            List<Map.Entry<Object, TimingHistogram.Snapshot>> data = new ArrayList<>(tracker.getHistogramData().entrySet());
+            data.removeIf(e -> e.getValue().getCount() == 0);
+            if (data.isEmpty()) {
+                source.sendSuccess(() -> Component.translatable("commands.forge.tracking.no_data"), true);
+                return 0;
+            }
+
+            data.sort(Comparator.comparingLong((Map.Entry<Object, TimingHistogram.Snapshot> e) -> e.getValue().getTotalNanos()).reversed());
+            data.stream()
+                .limit(10)
+                .forEach(e -> {
+                    TimingHistogram.Snapshot snap = e.getValue();
+                    source.sendSuccess(() -> Component.translatable("commands.forge.tracking.histogram_entry", typeName.apply(e.getKey()), snap.getCount(),
+                        formatNanos(snap.getTotalNanos()), formatNanos(snap.getPercentileNanos(0.5)), formatNanos(snap.getPercentileNanos(0.95)),
+                        formatNanos(snap.getPercentileNanos(0.99)), formatNanos(snap.getMaxNanos())), true);
+                });
+            return 0;
+        }
+    }
+
+    private static class ModsCommand {
+        static ArgumentBuilder<CommandSourceStack, ?> register() {
+            return Commands.literal("mods")
+                .executes(ctx -> execute(ctx.getSource()))
+                .then(Commands.literal("start")
+                    .requires(cs->cs.hasPermission(2)) //permission
+                    .executes(ctx -> {
+                        TimeTracker.BLOCK_ENTITY_UPDATE.enableModTimings();
+                        TimeTracker.ENTITY_UPDATE.enableModTimings();
+                        ctx.getSource().sendSuccess(() -> Component.translatable("commands.forge.tracking.mods.enabled"), true);
+                        return 0;
+                    })
+                )
+                .then(Commands.literal("stop")
+                    .requires(cs->cs.hasPermission(2)) //permission
+                    .executes(ctx -> {
+                        TimeTracker.BLOCK_ENTITY_UPDATE.disableModTimings();
+                        TimeTracker.ENTITY_UPDATE.disableModTimings();
+                        ctx.getSource().sendSuccess(() -> Component.translatable("commands.forge.tracking.mods.disabled"), true);
+                        return 0;
+                    })
+                )
+                .then(Commands.literal("reset")
+                    .requires(cs->cs.hasPermission(2)) //permission
+                    .executes(ctx -> {
+                        TimeTracker.BLOCK_ENTITY_UPDATE.getModTimings().reset();
+                        TimeTracker.ENTITY_UPDATE.getModTimings().reset();
+                        ctx.getSource().sendSuccess(() -> Component.translatable("commands.forge.tracking.mods.reset"), true);
+                        return 0;
+                    })
+                )
+                .then(Commands.literal("dump")
+                    .requires(cs->cs.hasPermission(2)) //permission
+                    .executes(ctx -> dump(ctx.getSource()))
+                );
+        }
+
+        private static int execute(CommandSourceStack source) {
+            Map<String, long[]> totals = new HashMap<>();
+            long sum = 0;
+            for (TimeTracker<?> tracker : List.of(TimeTracker.BLOCK_ENTITY_UPDATE, TimeTracker.ENTITY_UPDATE)) {
+                for (ModTimings.Entry entry : tracker.getModTimings().getData()) {
+                    long[] total = totals.computeIfAbsent(entry.namespace(), k -> new long[2]);
+                    total[0] += entry.totalNanos();
+                    total[1] += entry.count();
+                    sum += entry.totalNanos();
+                }
+            }
+
+            if (totals.isEmpty()) {
+                source.sendSuccess(() -> Component.translatable("commands.forge.tracking.no_data"), true);
+                return 0;
+            }
+
+            final double all = sum;
+            totals.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed())
+                .limit(10)
+                .forEach(e -> source.sendSuccess(() -> Component.translatable("commands.forge.tracking.mods.entry", e.getKey(), e.getValue()[1],
+                    formatNanos(e.getValue()[0]), PERCENT_FORMAT.format(e.getValue()[0] * 100 / all)), true));
+            return 0;
+        }
+
+        private static int dump(CommandSourceStack source) {
+            JsonObject root = new JsonObject();
+            root.add("block_entities", toJson(TimeTracker.BLOCK_ENTITY_UPDATE.getModTimings()));
+            root.add("entities", toJson(TimeTracker.ENTITY_UPDATE.getModTimings()));
+
+            Path file = FMLPaths.GAMEDIR.get().resolve("debug").resolve("forge-mod-timings-" + new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date()) + ".json");
+            try {
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, GSON.toJson(root));
+            } catch (IOException e) {
+                source.sendFailure(Component.translatable("commands.forge.tracking.mods.dump_failed", e.getMessage()));
+                return 0;
+            }
+
+            source.sendSuccess(() -> Component.translatable("commands.forge.tracking.mods.dumped", file.toString()), true);
+            return 0;
+        }
+
+        private static JsonArray toJson(ModTimings timings) {
+            JsonArray ret = new JsonArray();
+            for (ModTimings.Entry entry : timings.getData()) {
+                JsonObject obj = new JsonObject();
+                obj.addProperty("dimension", entry.dimension().location().toString());
+                obj.addProperty("namespace", entry.namespace());
+                obj.addProperty("count", entry.count());
+                obj.addProperty("total_nanos", entry.totalNanos());
+                obj.addProperty("max_nanos", entry.maxNanos());
+                ret.add(obj);
+            }
+            return ret;
+        }
+    }
 }
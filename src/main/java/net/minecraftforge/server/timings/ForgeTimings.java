@@ -7,6 +7,8 @@ package net.minecraftforge.server.timings;
 
 import java.lang.ref.WeakReference;
 
+import org.jetbrains.annotations.Nullable;
+
 /**
  * ForgeTimings aggregates timings data collected by {@link TimeTracker} for an Object
  * and performs operations for interpretation of the data.
@@ -20,10 +22,19 @@ public class ForgeTimings<T>
 
     private int[] rawTimingData;
 
+    @Nullable
+    private TimingHistogram.Snapshot typeTimings;
+
     public ForgeTimings(T object, int[] rawTimingData)
+    {
+        this(object, rawTimingData, null);
+    }
+
+    public ForgeTimings(T object, int[] rawTimingData, @Nullable TimingHistogram.Snapshot typeTimings)
     {
         this.object = new WeakReference<T>(object);
         this.rawTimingData = rawTimingData;
+        this.typeTimings = typeTimings;
     }
 
     /**
@@ -53,4 +64,15 @@ public class ForgeTimings<T>
 
         return sum / rawTimingData.length;
     }
+
+    /**
+     * Retrieves the histogram data recorded for every object sharing this object's type
+     *
+     * @return The aggregated timings, or null if histograms were not recorded for this type
+     */
+    @Nullable
+    public TimingHistogram.Snapshot getTypeTimings()
+    {
+        return typeTimings;
+    }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.ImmutableList;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+/**
+ * ModTimings rolls up the tick time recorded by a {@link TimeTracker} by the registry namespace of
+ * the tracked object's type and the dimension it ticked in, answering "which mod is using the tick".
+ * <p>
+ * Buckets are created the first time a namespace is seen in a dimension, after which recording is lock-free and does not allocate.
+ */
+public class ModTimings
+{
+    private final Map<ResourceKey<Level>, Map<String, Counter>> dimensions = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a single sample
+     *
+     * @param dimension The dimension the object ticked in
+     * @param namespace The namespace of the object's registry type
+     * @param nanos The duration of the sample in nanoseconds
+     */
+    public void record(ResourceKey<Level> dimension, String namespace, long nanos)
+    {
+        Map<String, Counter> namespaces = dimensions.get(dimension);
+        if (namespaces == null)
+            namespaces = dimensions.computeIfAbsent(dimension, k -> new ConcurrentHashMap<>());
+
+        Counter counter = namespaces.get(namespace);
+        if (counter == null)
+            counter = namespaces.computeIfAbsent(namespace, k -> new Counter());
+        counter.add(nanos);
+    }
+
+    /**
+     * Clears all recorded samples
+     */
+    public void reset()
+    {
+        dimensions.clear();
+    }
+
+    /**
+     * Returns the data recorded so far
+     *
+     * @return An immutable list with one entry per namespace per dimension
+     */
+    public ImmutableList<Entry> getData()
+    {
+        ImmutableList.Builder<Entry> builder = ImmutableList.builder();
+
+        for (Map.Entry<ResourceKey<Level>, Map<String, Counter>> dim : dimensions.entrySet())
+        {
+            for (Map.Entry<String, Counter> ns : dim.getValue().entrySet())
+            {
+                Counter counter = ns.getValue();
+                builder.add(new Entry(dim.getKey(), ns.getKey(), counter.count.get(), counter.total.get(), counter.max.get()));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * The time spent ticking objects of a single namespace in a single dimension
+     *
+     * @param dimension The dimension the objects ticked in
+     * @param namespace The namespace of the objects' registry types
+     * @param count The number of ticks recorded
+     * @param totalNanos The sum of all recorded ticks in nanoseconds
+     * @param maxNanos The longest single tick in nanoseconds
+     */
+    public record Entry(ResourceKey<Level> dimension, String namespace, long count, long totalNanos, long maxNanos) {}
+
+    private static class Counter
+    {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        private void add(long nanos)
+        {
+            count.incrementAndGet();
+            total.addAndGet(nanos);
+
+            long current = max.get();
+            while (nanos > current && !max.compareAndSet(current, nanos))
+                current = max.get();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.mojang.logging.LogUtils;
+
+import net.minecraft.Util;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.common.ForgeConfig;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+/**
+ * Periodically publishes {@link TickTimeStats} so it can be scraped by external monitoring, either as a JSON file
+ * or as one {@link TickTimesMXBean} per dimension, as selected by {@link ForgeConfig.Server#tickMetricsExport}.
+ */
+public class TickMetricsExporter
+{
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Map<String, ObjectName> BEANS = new HashMap<>();
+
+    /**
+     * Called at the end of every server tick after {@link TickTimeStats#sample(MinecraftServer, long)}
+     */
+    public static void tick(MinecraftServer server)
+    {
+        ForgeConfig.Server.TickMetricsExport mode = ForgeConfig.SERVER.tickMetricsExport.get();
+        if (mode != ForgeConfig.Server.TickMetricsExport.JMX && !BEANS.isEmpty())
+            unregisterBeans();
+
+        if (mode == ForgeConfig.Server.TickMetricsExport.OFF || server.getTickCount() % (ForgeConfig.SERVER.tickMetricsExportInterval.get() * 20) != 0)
+            return;
+
+        if (mode == ForgeConfig.Server.TickMetricsExport.JMX)
+        {
+            // Beans compute their values when read, so we only need to make sure every dimension has one
+            registerBean("server", TickTimeStats::getServerStats);
+            for (ResourceKey<Level> dim : TickTimeStats.getDimensions())
+                registerBean(dim.location().toString(), window -> TickTimeStats.getStats(dim, window));
+        }
+        else
+        {
+            Path file = FMLPaths.GAMEDIR.get().resolve("debug").resolve("forge-tick-metrics.json");
+            Util.backgroundExecutor().execute(() -> writeFile(file));
+        }
+    }
+
+    /**
+     * Removes any registered beans, called when the server stops
+     */
+    public static void stop()
+    {
+        unregisterBeans();
+    }
+
+    private static void writeFile(Path file)
+    {
+        JsonObject root = new JsonObject();
+        root.addProperty("timestamp", System.currentTimeMillis());
+        root.add("server", toJson(TickTimeStats::getServerStats));
+        JsonObject dims = new JsonObject();
+        for (ResourceKey<Level> dim : TickTimeStats.getDimensions())
+            dims.add(dim.location().toString(), toJson(window -> TickTimeStats.getStats(dim, window)));
+        root.add("dimensions", dims);
+
+        try
+        {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, GSON.toJson(root));
+            try
+            {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException e)
+        {
+            LOGGER.error("Failed to write tick metrics to {}", file, e);
+        }
+    }
+
+    private static JsonObject toJson(Function<TickTimeStats.Window, TickTimeStats.Stats> getter)
+    {
+        JsonObject ret = new JsonObject();
+        for (TickTimeStats.Window window : TickTimeStats.Window.values())
+        {
+            TickTimeStats.Stats stats = getter.apply(window);
+            if (stats == null)
+                continue;
+            JsonObject obj = new JsonObject();
+            obj.addProperty("samples", stats.getSamples());
+            obj.addProperty("mean_ms", stats.getMean());
+            obj.addProperty("p50_ms", stats.getP50());
+            obj.addProperty("p95_ms", stats.getP95());
+            obj.addProperty("p99_ms", stats.getP99());
+            obj.addProperty("max_ms", stats.getMax());
+            obj.addProperty("spikes", stats.getSpikes());
+            obj.addProperty("total_spikes", stats.getTotalSpikes());
+            ret.add(window.getLabel(), obj);
+        }
+        return ret;
+    }
+
+    private static void registerBean(String name, Function<TickTimeStats.Window, TickTimeStats.Stats> getter)
+    {
+        if (BEANS.containsKey(name))
+            return;
+        try
+        {
+            ObjectName objectName = new ObjectName("net.minecraftforge:type=TickTimes,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new TickTimesMXBean()
+            {
+                @Override public TickTimeStats.Stats getTenSeconds() { return getter.apply(TickTimeStats.Window.TEN_SECONDS); }
+                @Override public TickTimeStats.Stats getOneMinute() { return getter.apply(TickTimeStats.Window.ONE_MINUTE); }
+                @Override public TickTimeStats.Stats getFiveMinutes() { return getter.apply(TickTimeStats.Window.FIVE_MINUTES); }
+            }, objectName);
+            BEANS.put(name, objectName);
+        }
+        catch (JMException e)
+        {
+            LOGGER.error("Failed to register tick metrics bean for {}", name, e);
+            BEANS.put(name, null);
+        }
+    }
+
+    private static void unregisterBeans()
+    {
+        for (ObjectName name : BEANS.values())
+        {
+            if (name == null)
+                continue;
+            try
+            {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            }
+            catch (JMException e)
+            {
+                LOGGER.error("Failed to unregister tick metrics bean {}", name, e);
+            }
+        }
+        BEANS.clear();
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps the last five minutes of the per dimension tick times reported by {@link MinecraftServer#getTickTime(ResourceKey)},
+ * as well as the overall server tick time, so that their distribution can be reported instead of just the mean of the last 100 ticks.
+ */
+public class TickTimeStats
+{
+    public enum Window
+    {
+        TEN_SECONDS("10s", 10 * 20),
+        ONE_MINUTE("1m", 60 * 20),
+        FIVE_MINUTES("5m", 5 * 60 * 20);
+
+        private final String label;
+        private final int ticks;
+
+        Window(String label, int ticks)
+        {
+            this.label = label;
+            this.ticks = ticks;
+        }
+
+        public String getLabel()
+        {
+            return label;
+        }
+
+        public int getTicks()
+        {
+            return ticks;
+        }
+    }
+
+    private static final int CAPACITY = Window.FIVE_MINUTES.getTicks();
+    private static final Series SERVER = new Series();
+    private static final Map<ResourceKey<Level>, Series> DIMENSIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Records the most recent tick of the server and every loaded dimension. Called at the end of every server tick.
+     *
+     * @param server The ticking server
+     * @param spikeNanos Ticks taking at least this long are counted as lag spikes
+     */
+    public static void sample(MinecraftServer server, long spikeNanos)
+    {
+        int idx = server.getTickCount() % 100;
+        for (ServerLevel level : server.getAllLevels())
+        {
+            long[] times = server.getTickTime(level.dimension());
+            if (times == null)
+                continue;
+            Series series = DIMENSIONS.get(level.dimension());
+            if (series == null)
+                series = DIMENSIONS.computeIfAbsent(level.dimension(), k -> new Series());
+            series.add(times[idx], spikeNanos);
+        }
+        SERVER.add(server.tickTimesNanos[idx], spikeNanos);
+    }
+
+    /**
+     * Clears all recorded data, called when the server stops
+     */
+    public static void reset()
+    {
+        SERVER.clear();
+        DIMENSIONS.clear();
+    }
+
+    /**
+     * @return The dimensions that have data recorded
+     */
+    public static Set<ResourceKey<Level>> getDimensions()
+    {
+        return DIMENSIONS.keySet();
+    }
+
+    /**
+     * @return Statistics for the whole server tick over the given window
+     */
+    public static Stats getServerStats(Window window)
+    {
+        return SERVER.compute(window.getTicks());
+    }
+
+    /**
+     * @return Statistics for the given dimension over the given window, or null if nothing has been recorded for it
+     */
+    @Nullable
+    public static Stats getStats(ResourceKey<Level> dimension, Window window)
+    {
+        Series series = DIMENSIONS.get(dimension);
+        return series == null ? null : series.compute(window.getTicks());
+    }
+
+    /**
+     * The distribution of tick times over a window, in milliseconds.
+     * Exposed as getters so it can be used as an open type by JMX.
+     */
+    public static class Stats
+    {
+        private final int samples;
+        private final double mean;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final double max;
+        private final int spikes;
+        private final long totalSpikes;
+
+        private Stats(int samples, double mean, double p50, double p95, double p99, double max, int spikes, long totalSpikes)
+        {
+            this.samples = samples;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+            this.spikes = spikes;
+            this.totalSpikes = totalSpikes;
+        }
+
+        public int getSamples() { return samples; }
+        public double getMean() { return mean; }
+        public double getP50() { return p50; }
+        public double getP95() { return p95; }
+        public double getP99() { return p99; }
+        public double getMax() { return max; }
+        /** @return The number of lag spikes within the window */
+        public int getSpikes() { return spikes; }
+        /** @return The number of lag spikes since the server started */
+        public long getTotalSpikes() { return totalSpikes; }
+    }
+
+    private static class Series
+    {
+        private final long[] times = new long[CAPACITY];
+        private final boolean[] spikes = new boolean[CAPACITY];
+        private int next;
+        private int size;
+        private long totalSpikes;
+
+        private synchronized void add(long nanos, long spikeNanos)
+        {
+            boolean spike = nanos >= spikeNanos;
+            times[next] = nanos;
+            spikes[next] = spike;
+            next = (next + 1) % CAPACITY;
+            if (size < CAPACITY)
+                size++;
+            if (spike)
+                totalSpikes++;
+        }
+
+        private synchronized void clear()
+        {
+            next = 0;
+            size = 0;
+            totalSpikes = 0;
+        }
+
+        private Stats compute(int window)
+        {
+            long[] sorted;
+            int spikeCount = 0;
+            long total;
+            synchronized (this)
+            {
+                int count = Math.min(window, size);
+                sorted = new long[count];
+                for (int x = 0; x < count; x++)
+                {
+                    int idx = Math.floorMod(next - 1 - x, CAPACITY);
+                    sorted[x] = times[idx];
+                    if (spikes[idx])
+                        spikeCount++;
+                }
+                total = totalSpikes;
+            }
+
+            if (sorted.length == 0)
+                return new Stats(0, 0, 0, 0, 0, 0, 0, total);
+
+            Arrays.sort(sorted);
+            long sum = 0;
+            for (long v : sorted)
+                sum += v;
+            return new Stats(sorted.length, sum * 1.0E-6D / sorted.length, percentile(sorted, 0.5), percentile(sorted, 0.95),
+                percentile(sorted, 0.99), sorted[sorted.length - 1] * 1.0E-6D, spikeCount, total);
+        }
+
+        private static double percentile(long[] sorted, double percentile)
+        {
+            int idx = (int)Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, idx))] * 1.0E-6D;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.timings;
+
+/**
+ * JMX view of the tick time distribution of the server or a single dimension, see {@link TickTimeStats}
+ */
+public interface TickTimesMXBean
+{
+    TickTimeStats.Stats getTenSeconds();
+
+    TickTimeStats.Stats getOneMinute();
+
+    TickTimeStats.Stats getFiveMinutes();
+}
@@ -7,14 +7,25 @@ package net.minecraftforge.server.timings;
 
 import java.lang.ref.WeakReference;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.MapMaker;
 
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraftforge.registries.ForgeRegistries;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A class to assist in the collection of data to measure the update times of ticking objects {currently Tile Entities and Entities}
@@ -27,11 +38,27 @@ public class TimeTracker<T>
     /**
      * A tracker for timing tile entity update
      */
-    public static final TimeTracker<BlockEntity> BLOCK_ENTITY_UPDATE = new TimeTracker<>();
+    public static final TimeTracker<BlockEntity> BLOCK_ENTITY_UPDATE = new TimeTracker<>(BlockEntity::getType,
+        be -> be.getLevel() == null ? null : be.getLevel().dimension(),
+        type -> ForgeRegistries.BLOCK_ENTITY_TYPES.getKey((BlockEntityType<?>)type));
     /**
      * A tracker for timing entity updates
      */
-    public static final TimeTracker<Entity> ENTITY_UPDATE = new TimeTracker<>();
+    public static final TimeTracker<Entity> ENTITY_UPDATE = new TimeTracker<>(Entity::getType,
+        entity -> entity.level().dimension(),
+        type -> ForgeRegistries.ENTITY_TYPES.getKey((EntityType<?>)type));
+
+    private final Function<T, ?> typeGetter;
+    @Nullable
+    private final Function<T, ResourceKey<Level>> dimensionGetter;
+    @Nullable
+    private final Function<Object, ResourceLocation> typeKeyGetter;
+    private final Map<Object, TimingHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<Object, String> namespaces = new ConcurrentHashMap<>();
+    private final ModTimings modTimings = new ModTimings();
+    private final ThreadLocal<Span> spans = ThreadLocal.withInitial(Span::new);
+    private volatile boolean histogramsEnabled;
+    private volatile boolean modTimingsEnabled;
 
     private boolean enabled;
     private int trackingDuration;
@@ -40,6 +67,34 @@ public class TimeTracker<T>
     private long trackTime;
     private long timing;
 
+    /**
+     * Creates a tracker that aggregates histogram data by the class of the tracked object
+     */
+    public TimeTracker()
+    {
+        this(Object::getClass);
+    }
+
+    /**
+     * @param typeGetter Returns the key that histogram data for a tracked object is aggregated under, typically its registry type
+     */
+    public TimeTracker(Function<T, ?> typeGetter)
+    {
+        this(typeGetter, null, null);
+    }
+
+    /**
+     * @param typeGetter Returns the key that histogram data for a tracked object is aggregated under, typically its registry type
+     * @param dimensionGetter Returns the dimension a tracked object is in, or null if it is not in one
+     * @param typeKeyGetter Returns the registry name of a type returned by {@code typeGetter}, whose namespace mod timings are aggregated under
+     */
+    public TimeTracker(Function<T, ?> typeGetter, @Nullable Function<T, ResourceKey<Level>> dimensionGetter, @Nullable Function<Object, ResourceLocation> typeKeyGetter)
+    {
+        this.typeGetter = typeGetter;
+        this.dimensionGetter = dimensionGetter;
+        this.typeKeyGetter = typeKeyGetter;
+    }
+
     /**
      * Returns the timings data recorded by the tracker
      *
@@ -48,14 +103,100 @@ public class TimeTracker<T>
     public ImmutableList<ForgeTimings<T>> getTimingData()
     {
         ImmutableList.Builder<ForgeTimings<T>> builder = ImmutableList.builder();
+        Map<Object, TimingHistogram.Snapshot> snapshots = new HashMap<>();
 
         for (Map.Entry<T, int[]> entry : timings.entrySet())
         {
-            builder.add(new ForgeTimings<>(entry.getKey(), Arrays.copyOfRange(entry.getValue(), 0, 99)));
+            TimingHistogram histogram = histograms.get(typeGetter.apply(entry.getKey()));
+            TimingHistogram.Snapshot snapshot = histogram == null ? null : snapshots.computeIfAbsent(histogram, k -> histogram.snapshot());
+            builder.add(new ForgeTimings<>(entry.getKey(), Arrays.copyOfRange(entry.getValue(), 0, 99), snapshot));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the histogram data recorded by the tracker, aggregated by type
+     *
+     * @return An immutable map of type to a snapshot of the timings recorded for all objects of that type
+     */
+    public ImmutableMap<Object, TimingHistogram.Snapshot> getHistogramData()
+    {
+        ImmutableMap.Builder<Object, TimingHistogram.Snapshot> builder = ImmutableMap.builder();
+
+        for (Map.Entry<Object, TimingHistogram> entry : histograms.entrySet())
+        {
+            builder.put(entry.getKey(), entry.getValue().snapshot());
         }
         return builder.build();
     }
 
+    /**
+     * Starts recording histogram data. Unlike {@link #enable(int)} this has no duration, as recording
+     * does not allocate and is cheap enough to be left on for the lifetime of the server.
+     */
+    public void enableHistograms()
+    {
+        this.histogramsEnabled = true;
+    }
+
+    /**
+     * Stops recording histogram data, keeping anything recorded so far
+     */
+    public void disableHistograms()
+    {
+        this.histogramsEnabled = false;
+    }
+
+    /**
+     * @return If histogram data is currently being recorded
+     */
+    public boolean isHistogramsEnabled()
+    {
+        return histogramsEnabled;
+    }
+
+    /**
+     * Clears all recorded histogram data without changing whether it is being recorded
+     */
+    public void resetHistograms()
+    {
+        histograms.values().forEach(TimingHistogram::reset);
+    }
+
+    /**
+     * Returns the tick time recorded by the tracker, aggregated by dimension and the namespace of each object's type
+     *
+     * @return The per mod timings, which are only updated while {@link #isModTimingsEnabled()}
+     */
+    public ModTimings getModTimings()
+    {
+        return modTimings;
+    }
+
+    /**
+     * Starts aggregating tick time by mod. Has no effect on trackers created without a dimension and type key getter.
+     */
+    public void enableModTimings()
+    {
+        this.modTimingsEnabled = dimensionGetter != null && typeKeyGetter != null;
+    }
+
+    /**
+     * Stops aggregating tick time by mod, keeping anything recorded so far
+     */
+    public void disableModTimings()
+    {
+        this.modTimingsEnabled = false;
+    }
+
+    /**
+     * @return If tick time is currently being aggregated by mod
+     */
+    public boolean isModTimingsEnabled()
+    {
+        return modTimingsEnabled;
+    }
+
     /**
      * Resets the tracker (clears timings and stops any in-progress timings)
      */
@@ -73,9 +214,13 @@ public class TimeTracker<T>
      */
     public void trackEnd(T tracking)
     {
-        if (!enabled)
+        if (!enabled && !histogramsEnabled && !modTimingsEnabled)
             return;
-        this.trackEnd(tracking, System.nanoTime());
+        long nanoTime = System.nanoTime();
+        if (histogramsEnabled || modTimingsEnabled)
+            this.recordSpan(tracking, nanoTime);
+        if (enabled)
+            this.trackEnd(tracking, nanoTime);
     }
 
     /**
@@ -96,9 +241,54 @@ public class TimeTracker<T>
      */
     public void trackStart(T toTrack)
     {
-        if (!enabled)
+        if (!enabled && !histogramsEnabled && !modTimingsEnabled)
             return;
-        this.trackStart(toTrack, System.nanoTime());
+        long nanoTime = System.nanoTime();
+        if (histogramsEnabled || modTimingsEnabled)
+        {
+            Span span = spans.get();
+            span.tracking = toTrack;
+            span.start = nanoTime;
+        }
+        if (enabled)
+            this.trackStart(toTrack, nanoTime);
+    }
+
+    private void recordSpan(T object, long nanoTime)
+    {
+        Span span = spans.get();
+        if (span.tracking != object)
+        {
+            span.tracking = null;
+            return;
+        }
+        span.tracking = null;
+
+        long elapsed = nanoTime - span.start;
+        Object type = typeGetter.apply(object);
+        if (histogramsEnabled)
+        {
+            TimingHistogram histogram = histograms.get(type);
+            if (histogram == null)
+                histogram = histograms.computeIfAbsent(type, k -> new TimingHistogram());
+            histogram.record(elapsed);
+        }
+        if (modTimingsEnabled)
+        {
+            ResourceKey<Level> dimension = dimensionGetter.apply(object);
+            if (dimension == null)
+                return;
+            String namespace = namespaces.get(type);
+            if (namespace == null)
+                namespace = namespaces.computeIfAbsent(type, this::getNamespace);
+            modTimings.record(dimension, namespace, elapsed);
+        }
+    }
+
+    private String getNamespace(Object type)
+    {
+        ResourceLocation key = typeKeyGetter.apply(type);
+        return key == null ? "unknown" : key.getNamespace();
     }
 
     private void trackEnd(T object, long nanoTime)
@@ -128,4 +318,13 @@ public class TimeTracker<T>
         currentlyTracking = new WeakReference<>(toTrack);
         timing = nanoTime;
     }
+
+    /**
+     * The in-progress histogram timing for a single thread. Held strongly, but only between a start and its matching end.
+     */
+    private static class Span
+    {
+        private Object tracking;
+        private long start;
+    }
 }
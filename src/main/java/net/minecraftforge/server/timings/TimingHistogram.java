@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size, log-bucketed histogram of nanosecond durations.
+ * <p>
+ * All storage is allocated up front, so {@link #record(long)} never allocates and may be called
+ * concurrently from any number of threads. Every power of two is split into {@value #SUB_BUCKETS}
+ * linear sub-buckets, which bounds the error of any reported percentile to 25%.
+ */
+public class TimingHistogram
+{
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a single sample
+     *
+     * @param nanos The duration of the sample in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+            nanos = 0;
+        buckets.incrementAndGet(indexOf(nanos));
+        count.incrementAndGet();
+        total.addAndGet(nanos);
+
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos))
+            current = max.get();
+    }
+
+    /**
+     * Clears all recorded samples
+     */
+    public void reset()
+    {
+        for (int x = 0; x < BUCKETS; x++)
+            buckets.set(x, 0);
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Takes a copy of the data recorded so far. Samples recorded concurrently with this call may or may not be included.
+     *
+     * @return An immutable view of the current data
+     */
+    public Snapshot snapshot()
+    {
+        long[] copy = new long[BUCKETS];
+        for (int x = 0; x < BUCKETS; x++)
+            copy[x] = buckets.get(x);
+        return new Snapshot(copy, count.get(), total.get(), max.get());
+    }
+
+    private static int indexOf(long nanos)
+    {
+        if (nanos < SUB_BUCKETS)
+            return (int)nanos;
+        int exp = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int)(nanos >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exp - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int index)
+    {
+        if (index < SUB_BUCKETS)
+            return index;
+        int exp = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long width = 1L << (exp - SUB_BUCKET_BITS);
+        return ((long)(SUB_BUCKETS + sub) << (exp - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    /**
+     * An immutable copy of the data held by a {@link TimingHistogram}
+     */
+    public static class Snapshot
+    {
+        private final long[] buckets;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        private Snapshot(long[] buckets, long count, long total, long max)
+        {
+            this.buckets = buckets;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        /**
+         * @return The number of samples recorded
+         */
+        public long getCount()
+        {
+            return count;
+        }
+
+        /**
+         * @return The sum of all samples in nanoseconds
+         */
+        public long getTotalNanos()
+        {
+            return total;
+        }
+
+        /**
+         * @return The largest sample in nanoseconds
+         */
+        public long getMaxNanos()
+        {
+            return max;
+        }
+
+        /**
+         * @return The mean of all samples in nanoseconds, or 0 if nothing was recorded
+         */
+        public double getAverageNanos()
+        {
+            return count == 0 ? 0 : (double)total / count;
+        }
+
+        /**
+         * Estimates the value below which the given fraction of samples fall
+         *
+         * @param percentile A value between 0 and 1, for example 0.95 for the 95th percentile
+         * @return The upper bound of the bucket containing the percentile in nanoseconds, or 0 if nothing was recorded
+         */
+        public long getPercentileNanos(double percentile)
+        {
+            if (count == 0)
+                return 0;
+            long target = (long)Math.ceil(Math.min(1.0, Math.max(0.0, percentile)) * count);
+            if (target == 0)
+                target = 1;
+            long seen = 0;
+            for (int x = 0; x < buckets.length; x++)
+            {
+                seen += buckets[x];
+                if (seen >= target)
+                    return Math.min(upperBoundOf(x), max);
+            }
+            return max;
+        }
+    }
+}
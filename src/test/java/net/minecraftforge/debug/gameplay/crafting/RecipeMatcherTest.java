@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.gameplay.crafting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraftforge.common.util.RecipeMatcher;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.test.BaseTestMod;
+
+/**
+ * Checks {@link RecipeMatcher#findMatches(List, List)} against a plain backtracking search, which is what it used to be.
+ * Both should pick, for each test in order, the lowest input that still leaves a match for the rest.
+ */
+@Mod(RecipeMatcherTest.MODID)
+@GameTestHolder("forge.crafting.recipe_matcher")
+public class RecipeMatcherTest extends BaseTestMod {
+    public static final String MODID = "recipe_matcher_test";
+
+    public RecipeMatcherTest(FMLJavaModLoadingContext context) {
+        super(context);
+    }
+
+    @GameTest(template = "forge:empty3x3x3")
+    public static void random_small(GameTestHelper helper) {
+        var random = new Random(42);
+        for (int x = 0; x < 20000; x++) {
+            int size = random.nextInt(10);
+            double chance = random.nextDouble();
+            var tests = new ArrayList<Predicate<Integer>>(size);
+            for (int t = 0; t < size; t++) {
+                var accepted = new BitSet(size);
+                for (int i = 0; i < size; i++) {
+                    if (random.nextDouble() < chance)
+                        accepted.set(i);
+                }
+                tests.add(accepted::get);
+            }
+            compare(helper, inputs(size), tests);
+        }
+        helper.succeed();
+    }
+
+    @GameTest(template = "forge:empty3x3x3")
+    public static void ambiguous(GameTestHelper helper) {
+        // Every test takes every input
+        compare(helper, inputs(9), Collections.nCopies(9, i -> true));
+        // The greedy choice for the first test has to be undone
+        compare(helper, inputs(3), List.of(i -> i <= 1, i -> i == 0, i -> i == 2));
+        // Two interchangeable pairs and a test that can only take the last input
+        compare(helper, inputs(5), List.of(i -> i < 2, i -> i < 2, i -> i >= 2, i -> i >= 2, i -> i == 4));
+        // Nothing left for the last test
+        compare(helper, inputs(4), List.of(i -> i < 3, i -> i < 3, i -> i < 3, i -> i < 3));
+        // An input no test wants
+        compare(helper, inputs(3), List.of(i -> i < 2, i -> i < 2, i -> true));
+        // Mismatched sizes
+        helper.assertTrue(RecipeMatcher.findMatches(inputs(3), List.<Predicate<Integer>>of(i -> true)) == null, "Mismatched sizes should not match");
+        helper.succeed();
+    }
+
+    @GameTest(template = "forge:empty3x3x3")
+    public static void large(GameTestHelper helper) {
+        // Each test takes its own input or its neighbours
+        var band = new ArrayList<Predicate<Integer>>();
+        for (int t = 0; t < 81; t++) {
+            int center = t;
+            band.add(i -> Math.abs(i - center) <= 1);
+        }
+        compare(helper, inputs(81), band);
+
+        // Six kinds of ingredient, six of each, with the inputs shuffled like a filled crafting grid
+        var kinds = new ArrayList<Integer>();
+        for (int i = 0; i < 36; i++)
+            kinds.add(i % 6);
+        Collections.shuffle(kinds, new Random(7));
+        var grouped = new ArrayList<Predicate<Integer>>();
+        for (int t = 0; t < 36; t++) {
+            int kind = t / 6;
+            grouped.add(i -> kinds.get(i) == kind);
+        }
+        compare(helper, inputs(36), grouped);
+
+        // One input too few for the tests that need them, which a backtracking search can't rule out in reasonable time
+        var starved = new ArrayList<Predicate<Integer>>();
+        for (int t = 0; t < 40; t++)
+            starved.add(t == 39 ? i -> true : i -> i < 38);
+        helper.assertTrue(RecipeMatcher.findMatches(inputs(40), starved) == null, "Starved tests should not match");
+        helper.succeed();
+    }
+
+    private static List<Integer> inputs(int size) {
+        var ret = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++)
+            ret.add(i);
+        return ret;
+    }
+
+    private static void compare(GameTestHelper helper, List<Integer> inputs, List<Predicate<Integer>> tests) {
+        int[] expected = reference(inputs, tests);
+        int[] actual = RecipeMatcher.findMatches(inputs, tests);
+        helper.assertTrue(Arrays.equals(expected, actual), "Expected " + Arrays.toString(expected) + " but got " + Arrays.toString(actual));
+    }
+
+    // Each test in order takes the lowest unused input that lets the remaining tests match
+    private static int[] reference(List<Integer> inputs, List<Predicate<Integer>> tests) {
+        if (inputs.size() != tests.size())
+            return null;
+        int[] ret = new int[inputs.size()];
+        Arrays.fill(ret, -1);
+        return search(inputs, tests, 0, ret) ? ret : null;
+    }
+
+    private static boolean search(List<Integer> inputs, List<Predicate<Integer>> tests, int test, int[] ret) {
+        if (test == tests.size())
+            return true;
+        for (int i = 0; i < inputs.size(); i++) {
+            if (ret[i] != -1 || !tests.get(test).test(inputs.get(i)))
+                continue;
+            ret[i] = test;
+            if (search(inputs, tests, test + 1, ret))
+                return true;
+            ret[i] = -1;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.gameplay.storage;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.FluidUtil;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+import net.minecraftforge.fluids.capability.IFluidHandler.FluidAction;
+import net.minecraftforge.fluids.capability.IFluidHandlerTransaction;
+import net.minecraftforge.fluids.capability.templates.FluidTank;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.IItemHandlerTransaction;
+import net.minecraftforge.items.ItemStackHandler;
+import net.minecraftforge.test.BaseTestMod;
+
+/**
+ * Checks that staging changes in a transaction and committing them does the same as simulating each change and then
+ * doing it for real, for {@link FluidTank} and {@link ItemStackHandler}, and that subclasses which override how
+ * changes are made fall back to the simulated transaction.
+ */
+@Mod(TransactionTest.MODID)
+@GameTestHolder("forge.storage.transaction")
+public class TransactionTest extends BaseTestMod {
+    public static final String MODID = "transaction_test";
+    private static final int CAPACITY = 1000;
+
+    public TransactionTest(FMLJavaModLoadingContext context) {
+        super(context);
+    }
+
+    @GameTest(template = "forge:empty3x3x3")
+    public static void fluid_fill_drain(GameTestHelper helper) {
+        // Two changes in one transaction, the second seeing the first
+        for (var contents : tankContents()) {
+            for (var first : fluidOps()) {
+                for (var second : fluidOps()) {
+                    var staged = tank(CAPACITY, contents, false);
+                    var direct = tank(CAPACITY, contents, false);
+                    String name = describe(contents) + ", " + first.name() + " then " + second.name();
+
+                    FluidStack stagedFirst, stagedSecond;
+                    try (var transaction = staged.openTransaction()) {
+                        stagedFirst = first.staged().apply(transaction);
+                        stagedSecond = second.staged().apply(transaction);
+                        transaction.commit();
+                    }
+                    var directFirst = direct(helper, first, direct, name);
+                    var directSecond = direct(helper, second, direct, name);
+
+                    assertSame(helper, stagedFirst, directFirst, name + ": first result");
+                    assertSame(helper, stagedSecond, directSecond, name + ": second result");
+                    assertSame(helper, staged.getFluid(), direct.getFluid(), name + ": contents");
+                }
+            }
+        }
+        helper.succeed();
+    }
+
+    @GameTest(template = "forge:empty3x3x3")
+    public static void fluid_abort(GameTestHelper helper) {
+        // Abort then drain again, as FluidUtil does when the destination only takes part of what was drained
+        var staged = tank(CAPACITY, new FluidStack(Fluids.WATER, 1000), false);
+        var direct = tank(CAPACITY, new FluidStack(Fluids.WATER, 1000), false);
+        FluidStack drained;
+        try (var transaction = staged.openTransaction()) {
+            transaction.drain(700);
+            transaction.abort();
+            drained = transaction.drain(new FluidStack(Fluids.WATER, 200));
+            transaction.commit();
+        }
+        var expected = direct.drain(new FluidStack(Fluids.WATER, 200), FluidAction.EXECUTE);
+        assertSame(helper, drained, expected, "Drain after abort");
+        assertSame(helper, staged.getFluid(), direct.getFluid(), "Contents after abort");
+
+        // Nothing staged survives closing without a commit
+        try (var transaction = staged.openTransaction()) {
+            transaction.fill(new FluidStack(Fluids.WATER, 100));
+            transaction.drain(500);
+        }
+        assertSame(helper, staged.getFluid(), direct.getFluid(), "Contents after closing");
+        helper.succeed();
+    }
+
+    @GameTest(template = "forge:empty3x3x3")
+    public static void fluid_transfer(GameTestHelper helper) {
+        var water = new FluidStack(Fluids.WATER, 1000);
+        // Source contents, destination capacity and destination contents
+        var cases = List.of(
+            new Transfer("into an empty tank", water, 1000, FluidStack.EMPTY),
+            new Transfer("partial fill", water, 300, new FluidStack(Fluids.WATER, 100)),
+            new Transfer("short source", new FluidStack(Fluids.WATER, 50), 1000, FluidStack.EMPTY),
+            new Transfer("other fluid in destination", water, 1000, new FluidStack(Fluids.LAVA, 100)),
+            new Transfer("empty source", FluidStack.EMPTY, 1000, FluidStack.EMPTY),
+            new Transfer("full destination", water, 1000, water)
+        );
+
+        for (var transfer : cases) {
+            for (boolean doTransfer : new boolean[] { false, true }) {
+                // Transfer any fluid by amount, and transfer a specific fluid, both one that is there and one that isn't
+                List<Function<IFluidHandler[], FluidStack>> calls = List.of(
+                    h -> FluidUtil.tryFluidTransfer(h[1], h[0], 500, doTransfer),
+                    h -> FluidUtil.tryFluidTransfer(h[1], h[0], new FluidStack(Fluids.WATER, 500), doTransfer),
+                    h -> FluidUtil.tryFluidTransfer(h[1], h[0], new FluidStack(Fluids.LAVA, 500), doTransfer)
+                );
+                for (int i = 0; i < calls.size(); i++) {
+                    String name = transfer.name() + ", call " + i + (doTransfer ? "" : ", simulated");
+                    var transacted = transfer.tanks(false);
+                    var fallback = transfer.tanks(true);
+                    helper.assertTrue(transacted[0].supportsTransactions() && transacted[1].supportsTransactions(), "FluidTank should support transactions");
+
+                    var expected = calls.get(i).apply(fallback);
+                    var actual = calls.get(i).apply(transacted);
+                    assertSame(helper, actual, expected, name + ": transferred");
+                    assertSame(helper, transacted[0].getFluid(), fallback[0].getFluid(), name + ": source");
+                    assertSame(helper, transacted[1].getFluid(), fallback[1].getFluid(), name + ": destination");
+                    if (!doTransfer) {
+                        assertSame(helper, transacted[0].getFluid(), transfer.source(), name + ": simulated source changed");
+                        assertSame(helper, transacted[1].getFluid(), transfer.destination(), name + ": simulated destination changed");
+                    }
+                }
+            }
+        }
+        helper.succeed();
+    }
+
+    @GameTest(template = "forge:empty3x3x3")
+    public static void fluid_overridden(GameTestHelper helper) {
+        helper.assertTrue(tank(CAPACITY, FluidStack.EMPTY, false).supportsTransactions(), "FluidTank should support transactions");
+        helper.assertTrue(!(tank(CAPACITY, FluidStack.EMPTY, false).openTransaction() instanceof IFluidHandlerTransaction.Simulated), "FluidTank should have its own transaction");
+        helper.assertTrue(!tank(CAPACITY, FluidStack.EMPTY, true).supportsTransactions(), "Overridden tank should not support transactions");
+        helper.assertTrue(tank(CAPACITY, FluidStack.EMPTY, true).openTransaction() instanceof IFluidHandlerTransaction.Simulated, "Overridden tank should fall back to a simulated transaction");
+
+        // One change at a time, as that is all the simulated transaction allows
+        for (var contents : tankContents()) {
+            for (var op : fluidOps()) {
+                var staged = tank(CAPACITY, contents, true);
+                var direct = tank(CAPACITY, contents, true);
+                String name = describe(contents) + ", " + op.name();
+
+                FluidStack result;
+                try (var transaction = staged.openTransaction()) {
+                    result = op.staged().apply(transaction);
+                    if (!result.isEmpty())
+                        helper.assertTrue(transaction.drain(1).isEmpty() && transaction.fill(new FluidStack(Fluids.WATER, 1)) == 0, name + ": second change should be refused");
+                    transaction.commit();
+                }
+                assertSame(helper, result, direct(helper, op, direct, name), name + ": result");
+                assertSame(helper, staged.getFluid(), direct.getFluid(), name + ": contents");
+            }
+        }
+        helper.succeed();
+    }
+
+    @GameTest(template = "forge:empty3x3x3")
+    public static void item_insert_extract(GameTestHelper helper) {
+        for (boolean indexed : new boolean[] { false, true }) {
+            for (var first : itemOps()) {
+                for (var second : itemOps()) {
+                    var staged = items(indexed, false);
+                    var direct = items(indexed, false);
+                    String name = (indexed ? "indexed, " : "") + first.name() + " then " + second.name();
+
+                    ItemStack stagedFirst, stagedSecond;
+                    try (var transaction = staged.openTransaction()) {
+                        stagedFirst = first.staged().apply(transaction);
+                        stagedSecond = second.staged().apply(transaction);
+                        transaction.commit();
+                    }
+                    var directFirst = direct(helper, first, direct, name);
+                    var directSecond = direct(helper, second, direct, name);
+
+                    assertSame(helper, stagedFirst, directFirst, name + ": first result");
+                    assertSame(helper, stagedSecond, directSecond, name + ": second result");
+                    assertSame(helper, staged, direct, name);
+                }
+            }
+        }
+        helper.succeed();
+    }
+
+    @GameTest(template = "forge:empty3x3x3")
+    public static void item_insert_many(GameTestHelper helper) {
+        var lists = List.of(
+            List.of(new ItemStack(Items.DIRT, 40), new ItemStack(Items.DIRT, 40), new ItemStack(Items.STONE, 64), new ItemStack(Items.DIRT, 64), new ItemStack(Items.STONE, 64)),
+            List.of(new ItemStack(Items.STONE, 10), new ItemStack(Items.DIRT, 1), new ItemStack(Items.STONE, 1), new ItemStack(Items.BUCKET, 1)),
+            List.of(new ItemStack(Items.DIAMOND_SWORD), new ItemStack(Items.DIAMOND_SWORD), new ItemStack(Items.DIAMOND_SWORD))
+        );
+
+        for (boolean indexed : new boolean[] { false, true }) {
+            for (boolean overridden : new boolean[] { false, true }) {
+                for (var list : lists) {
+                    String name = (indexed ? "indexed, " : "") + (overridden ? "overridden, " : "") + list.size() + " stacks";
+                    var handler = items(indexed, overridden);
+                    var simulated = handler.insertItems(copy(list), true);
+                    assertSame(helper, handler, items(indexed, overridden), name + ": simulating changed the contents");
+
+                    var inserted = handler.insertItems(copy(list), false);
+                    for (int i = 0; i < list.size(); i++) {
+                        if (overridden) {
+                            // Only one change per slot is staged, so this may report less going in, but never more
+                            helper.assertTrue(simulated.get(i).getCount() >= inserted.get(i).getCount(), name + ": stack " + i + " reported more fitting than did");
+                        } else {
+                            assertSame(helper, simulated.get(i), inserted.get(i), name + ": stack " + i);
+                        }
+                    }
+                }
+            }
+        }
+        helper.succeed();
+    }
+
+    @GameTest(template = "forge:empty3x3x3")
+    public static void item_overridden(GameTestHelper helper) {
+        helper.assertTrue(items(false, false).supportsTransactions(), "ItemStackHandler should support transactions");
+        helper.assertTrue(!(items(false, false).openTransaction() instanceof IItemHandlerTransaction.Simulated), "ItemStackHandler should have its own transaction");
+        helper.assertTrue(!items(false, true).supportsTransactions(), "Overridden handler should not support transactions");
+        helper.assertTrue(items(false, true).openTransaction() instanceof IItemHandlerTransaction.Simulated, "Overridden handler should fall back to a simulated transaction");
+
+        // One change per slot, as that is all the simulated transaction allows
+        for (var op : itemOps()) {
+            var staged = items(false, true);
+            var direct = items(false, true);
+
+            ItemStack result;
+            try (var transaction = staged.openTransaction()) {
+                result = op.staged().apply(transaction);
+                transaction.commit();
+            }
+            assertSame(helper, result, direct(helper, op, direct, op.name()), op.name() + ": result");
+            assertSame(helper, staged, direct, op.name());
+        }
+        helper.succeed();
+    }
+
+    private record FluidOp(String name, BiFunction<IFluidHandler, FluidAction, FluidStack> direct, Function<IFluidHandlerTransaction, FluidStack> staged) {}
+
+    private record ItemOp(String name, BiFunction<IItemHandler, Boolean, ItemStack> direct, Function<IItemHandlerTransaction, ItemStack> staged) {}
+
+    private record Transfer(String name, FluidStack source, int capacity, FluidStack destination) {
+        private FluidTank[] tanks(boolean overridden) {
+            return new FluidTank[] { tank(CAPACITY, source, overridden), tank(capacity, destination, overridden) };
+        }
+    }
+
+    private static List<FluidStack> tankContents() {
+        return List.of(FluidStack.EMPTY, new FluidStack(Fluids.WATER, 400), new FluidStack(Fluids.WATER, CAPACITY), new FluidStack(Fluids.LAVA, 400));
+    }
+
+    private static List<FluidOp> fluidOps() {
+        return List.of(
+            fill(Fluids.WATER, 300), fill(Fluids.WATER, 800), fill(Fluids.LAVA, 100),
+            drain(Fluids.WATER, 300), drain(Fluids.WATER, 800), drain(Fluids.LAVA, 100),
+            drain(0), drain(300), drain(2000)
+        );
+    }
+
+    private static FluidOp fill(Fluid fluid, int amount) {
+        var resource = new FluidStack(fluid, amount);
+        return new FluidOp("fill " + describe(resource),
+            (handler, action) -> new FluidStack(resource, handler.fill(resource.copy(), action)),
+            transaction -> new FluidStack(resource, transaction.fill(resource.copy())));
+    }
+
+    private static FluidOp drain(Fluid fluid, int amount) {
+        var resource = new FluidStack(fluid, amount);
+        return new FluidOp("drain " + describe(resource),
+            (handler, action) -> handler.drain(resource.copy(), action),
+            transaction -> transaction.drain(resource.copy()));
+    }
+
+    private static FluidOp drain(int amount) {
+        return new FluidOp("drain " + amount, (handler, action) -> handler.drain(amount, action), transaction -> transaction.drain(amount));
+    }
+
+    private static List<ItemOp> itemOps() {
+        return List.of(
+            insert(0, new ItemStack(Items.DIRT, 10)), insert(1, new ItemStack(Items.DIRT, 64)), insert(1, new ItemStack(Items.STONE, 5)),
+            insert(2, new ItemStack(Items.DIRT, 1)), insert(2, new ItemStack(Items.STONE, 64)),
+            extract(0, 64), extract(0, 5), extract(1, 1), extract(2, 1)
+        );
+    }
+
+    private static ItemOp insert(int slot, ItemStack stack) {
+        return new ItemOp("insert " + stack + " into " + slot,
+            (handler, simulate) -> handler.insertItem(slot, stack.copy(), simulate),
+            transaction -> transaction.insertItem(slot, stack.copy()));
+    }
+
+    private static ItemOp extract(int slot, int amount) {
+        return new ItemOp("extract " + amount + " from " + slot,
+            (handler, simulate) -> handler.extractItem(slot, amount, simulate),
+            transaction -> transaction.extractItem(slot, amount));
+    }
+
+    // Simulates then executes, checking that both agree
+    private static FluidStack direct(GameTestHelper helper, FluidOp op, IFluidHandler handler, String name) {
+        var simulated = op.direct().apply(handler, FluidAction.SIMULATE);
+        var executed = op.direct().apply(handler, FluidAction.EXECUTE);
+        assertSame(helper, simulated, executed, name + ": simulating " + op.name());
+        return executed;
+    }
+
+    private static ItemStack direct(GameTestHelper helper, ItemOp op, IItemHandler handler, String name) {
+        var simulated = op.direct().apply(handler, true);
+        var executed = op.direct().apply(handler, false);
+        assertSame(helper, simulated, executed, name + ": simulating " + op.name());
+        return executed;
+    }
+
+    private static FluidTank tank(int capacity, FluidStack contents, boolean overridden) {
+        var ret = overridden ? new OverriddenTank(capacity) : new FluidTank(capacity);
+        ret.setFluid(contents.copy());
+        return ret;
+    }
+
+    private static ItemStackHandler items(boolean indexed, boolean overridden) {
+        var ret = overridden ? new OverriddenItems(indexed) : new ItemStackHandler(4, indexed);
+        ret.setStackInSlot(0, new ItemStack(Items.DIRT, 60));
+        ret.setStackInSlot(2, new ItemStack(Items.STONE, 1));
+        return ret;
+    }
+
+    private static List<ItemStack> copy(List<ItemStack> stacks) {
+        return stacks.stream().map(ItemStack::copy).toList();
+    }
+
+    private static String describe(FluidStack stack) {
+        return stack.isEmpty() ? "empty" : stack.getAmount() + " " + BuiltInRegistries.FLUID.getKey(stack.getFluid());
+    }
+
+    private static void assertSame(GameTestHelper helper, FluidStack actual, FluidStack expected, String message) {
+        boolean same = actual.isEmpty() ? expected.isEmpty() : actual.isFluidStackIdentical(expected);
+        helper.assertTrue(same, message + ": expected " + describe(expected) + " but got " + describe(actual));
+    }
+
+    private static void assertSame(GameTestHelper helper, ItemStack actual, ItemStack expected, String message) {
+        helper.assertTrue(ItemStack.matches(actual, expected), message + ": expected " + expected + " but got " + actual);
+    }
+
+    private static void assertSame(GameTestHelper helper, IItemHandler actual, IItemHandler expected, String message) {
+        for (int slot = 0; slot < expected.getSlots(); slot++)
+            assertSame(helper, actual.getStackInSlot(slot), expected.getStackInSlot(slot), message + ": slot " + slot);
+    }
+
+    // Changes nothing, but overriding is enough to lose the native transaction
+    private static class OverriddenTank extends FluidTank {
+        private OverriddenTank(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        public int fill(FluidStack resource, FluidAction action) {
+            return super.fill(resource, action);
+        }
+    }
+
+    private static class OverriddenItems extends ItemStackHandler {
+        private OverriddenItems(boolean indexed) {
+            super(4, indexed);
+        }
+
+        @Override
+        public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
+            return super.insertItem(slot, stack, simulate);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.debug.network;
+
+import java.nio.charset.StandardCharsets;
+
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ConfigTracker;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.network.tasks.ServerConfigCache;
+import net.minecraftforge.test.BaseTestMod;
+
+/**
+ * Runs a server config through what the client does with one it was sent, which must not touch the file the
+ * server side keeps it in.
+ */
+@Mod(ConfigSyncTest.MODID)
+@GameTestHolder("forge." + ConfigSyncTest.MODID)
+public class ConfigSyncTest extends BaseTestMod {
+    static final String MODID = "config_sync";
+
+    private static final ForgeConfigSpec.IntValue VALUE;
+    private static final ForgeConfigSpec SPEC;
+    static {
+        var builder = new ForgeConfigSpec.Builder();
+        VALUE = builder.defineInRange("value", 1, 0, 100);
+        SPEC = builder.build();
+    }
+
+    public ConfigSyncTest(FMLJavaModLoadingContext context) {
+        super(context);
+        context.registerConfig(ModConfig.Type.SERVER, SPEC);
+    }
+
+    @GameTest(template = "forge:empty3x3x3")
+    public static void synced_config(GameTestHelper helper) {
+        var config = ConfigTracker.INSTANCE.fileMap().get(ConfigTracker.INSTANCE.getConfigFileName(MODID, ModConfig.Type.SERVER));
+        helper.assertTrue(config != null, "Server config was not registered");
+
+        // Fires the reloading event with data held in memory, as ForgePacketHandler does on the client
+        config.acceptSyncedConfig("value = 42\n".getBytes(StandardCharsets.UTF_8));
+        helper.assertValueEqual(VALUE.get(), 42, "Synced value");
+
+        // And again directly, as loading default server configs for a vanilla server would
+        ServerConfigCache.refresh(config);
+        helper.succeed();
+    }
+}